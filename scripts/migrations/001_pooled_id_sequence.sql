@@ -0,0 +1,24 @@
+-- Move users/projects ids from IDENTITY columns to the shared pooled sequence
+-- used by BaseEntity (allocationSize = 50).
+--
+-- Apply once against an existing PostgreSQL database, with the application stopped:
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/001_pooled_id_sequence.sql
+--
+-- The pooled optimizer hands out ids up to 49 below the sequence value it reads, so the
+-- sequence is positioned at least one full block above the highest existing id.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS greencode_id_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('greencode_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM users),
+                       (SELECT COALESCE(MAX(id), 0) FROM projects)) + 50);
+
+-- Ids are now assigned by the application; drop the column-level generators
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE projects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE projects ALTER COLUMN id DROP DEFAULT;
+
+COMMIT;
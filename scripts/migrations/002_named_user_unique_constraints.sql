@@ -0,0 +1,31 @@
+-- Give the users unique constraints stable names. UserService matches these names to
+-- report "username taken" / "email taken" from a single insert or update.
+--
+-- Apply once against an existing PostgreSQL database:
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/002_named_user_unique_constraints.sql
+
+DO $$
+DECLARE
+    target record;
+    current_name text;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES ('username', 'uk_users_username'),
+                                        ('email', 'uk_users_email')) AS t(column_name, constraint_name)
+    LOOP
+        SELECT c.conname INTO current_name
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'users'::regclass
+          AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND a.attname = target.column_name;
+
+        IF current_name IS NULL THEN
+            EXECUTE format('ALTER TABLE users ADD CONSTRAINT %I UNIQUE (%I)',
+                           target.constraint_name, target.column_name);
+        ELSIF current_name <> target.constraint_name THEN
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I',
+                           current_name, target.constraint_name);
+        END IF;
+    END LOOP;
+END $$;
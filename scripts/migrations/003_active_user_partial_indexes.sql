@@ -0,0 +1,9 @@
+-- Partial indexes covering only active users. Entity reads always filter on is_active,
+-- so these stay small and hot however many soft-deleted rows accumulate.
+--
+-- CONCURRENTLY avoids blocking writes but cannot run inside a transaction, so apply with
+-- psql in its default autocommit mode:
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/003_active_user_partial_indexes.sql
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_users_username_active ON users (username) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_users_email_active ON users (email) WHERE is_active;
@@ -0,0 +1,23 @@
+-- Composite indexes for the filtered project listing (GET /projects). Listings are ordered by
+-- (created_at, id) and resumed from a keyset cursor, so each index puts the equality filters
+-- first and the sort key last: the scan walks the index in order and stops after one page.
+-- Partial on is_active, since entity reads never see soft-deleted projects.
+--
+-- CONCURRENTLY avoids blocking writes but cannot run inside a transaction, so apply with
+-- psql in its default autocommit mode:
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/004_project_listing_indexes.sql
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_created_at_id_active
+    ON projects (created_at, id) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_category_status_created_at_id_active
+    ON projects (category, status, created_at, id) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_status_created_at_id_active
+    ON projects (status, created_at, id) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_manager_created_at_id_active
+    ON projects (manager_id, created_at, id) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_public_created_at_id_active
+    ON projects (is_public, created_at, id) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_category_start_date_active
+    ON projects (category, start_date) WHERE is_active;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_projects_category_impact_score_active
+    ON projects (category, impact_score) WHERE is_active;
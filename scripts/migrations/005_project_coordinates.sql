@@ -0,0 +1,20 @@
+-- Numeric latitude/longitude for projects, parsed from the free-text "lat,lng" coordinates.
+-- The application keeps both in step on every write; this backfills existing rows. Rows whose
+-- coordinates do not parse are left with NULLs and stay out of the spatial index.
+--
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/005_project_coordinates.sql
+
+BEGIN;
+
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+UPDATE projects
+SET latitude = trim(split_part(coordinates, ',', 1))::double precision,
+    longitude = trim(split_part(coordinates, ',', 2))::double precision
+WHERE latitude IS NULL
+  AND coordinates ~ '^\s*-?[0-9]+(\.[0-9]+)?\s*,\s*-?[0-9]+(\.[0-9]+)?\s*$'
+  AND trim(split_part(coordinates, ',', 1))::double precision BETWEEN -90 AND 90
+  AND trim(split_part(coordinates, ',', 2))::double precision BETWEEN -180 AND 180;
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Budget and cost totals per project category and status, kept up to date by each project
+-- write (ProjectRollupService). One row per combination, keyed by both columns; the
+-- application seeds missing rows from projects on startup and repairs drift hourly.
+--
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/006_project_rollups.sql
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS project_rollups (
+    category          VARCHAR(50)    NOT NULL,
+    status            VARCHAR(50)    NOT NULL,
+    project_count     BIGINT         NOT NULL DEFAULT 0,
+    total_budget      NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    total_actual_cost NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT pk_project_rollups PRIMARY KEY (category, status)
+);
+
+COMMIT;
@@ -0,0 +1,31 @@
+-- Tables used by the user purge job: users_archive receives long-inactive users (without
+-- their password hash) and job_checkpoints records how far each chunked job has got. The
+-- checkpoint row is seeded here so nodes starting the job at the same time only ever lock it,
+-- never race to insert it.
+--
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/007_user_purge_tables.sql
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS users_archive (
+    id          BIGINT       PRIMARY KEY,
+    username    VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(255),
+    last_name   VARCHAR(255),
+    role        VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    job_name   VARCHAR(100) PRIMARY KEY,
+    last_id    BIGINT       NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6)
+);
+
+INSERT INTO job_checkpoints (job_name, last_id) VALUES ('user-purge', 0)
+ON CONFLICT (job_name) DO NOTHING;
+
+COMMIT;
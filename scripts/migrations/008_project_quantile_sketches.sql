@@ -0,0 +1,30 @@
+-- Persisted t-digests behind the project budget/cost percentiles (ProjectPercentileService).
+-- Rows under node_id 'snapshot' are the latest rebuild from projects; every other node_id
+-- holds the projects one application node created since the snapshot of the same generation.
+-- Each node only rewrites its own rows, so nodes never overwrite each other.
+--
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/008_project_quantile_sketches.sql
+
+BEGIN;
+
+-- The rows are derived data that the application rebuilds when the table is empty, so an
+-- earlier table without node_id (created by Hibernate's ddl-auto) is simply replaced
+DROP TABLE IF EXISTS project_quantile_sketches;
+
+CREATE TABLE project_quantile_sketches (
+    node_id      VARCHAR(64)  NOT NULL,
+    category     VARCHAR(50)  NOT NULL,
+    status       VARCHAR(50)  NOT NULL,
+    metric       VARCHAR(20)  NOT NULL,
+    digest       BYTEA        NOT NULL,
+    sample_count BIGINT       NOT NULL DEFAULT 0,
+    generation   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6),
+    CONSTRAINT pk_project_quantile_sketches PRIMARY KEY (node_id, category, status, metric)
+);
+
+-- Loading a snapshot reads every node's rows of its generation
+CREATE INDEX idx_project_quantile_sketches_generation
+    ON project_quantile_sketches (generation);
+
+COMMIT;
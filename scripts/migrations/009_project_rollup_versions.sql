@@ -0,0 +1,11 @@
+-- Version counter on project_rollups. Every project write bumps the version of the rows it
+-- adjusts, and reconciliation only corrects a row whose version is unchanged since it was read
+-- before the recount, so the recount runs without locking the rollups.
+--
+--   psql -h <host> -U <user> -d <database> -f scripts/migrations/009_project_rollup_versions.sql
+
+BEGIN;
+
+ALTER TABLE project_rollups ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
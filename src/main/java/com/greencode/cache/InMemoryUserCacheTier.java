@@ -0,0 +1,59 @@
+package com.greencode.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Process-local stand-in for Redis, used when no Redis server is configured
+ * (development, tests). With a single process there is nobody to notify, so
+ * invalidation broadcasts are no-ops.
+ */
+public class InMemoryUserCacheTier implements SharedUserCacheTier {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(Collection<String> keys) {
+        keys.forEach(entries::remove);
+    }
+
+    @Override
+    public void publishInvalidation(String message) {
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> handler) {
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expiresAtNanos;
+
+        private Entry(String value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.greencode.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Redis-backed shared tier. Any Redis error is logged, counted and reported as a miss.
+ */
+public class RedisUserCacheTier implements SharedUserCacheTier {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisUserCacheTier.class);
+
+    static final String INVALIDATION_CHANNEL = "greencode:users:invalidate";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Counter errors;
+
+    public RedisUserCacheTier(StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.errors = Counter.builder("greencode.users.cache.errors")
+            .description("Failed operations against the shared Redis cache tier")
+            .tag("tier", "redis")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(key));
+        } catch (RuntimeException e) {
+            failed("get", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (RuntimeException e) {
+            failed("put", e);
+        }
+    }
+
+    @Override
+    public void evict(Collection<String> keys) {
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            failed("evict", e);
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String message) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            failed("publish", e);
+        }
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> handler) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> handler.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        errors.increment();
+        log.warn("Redis user cache {} failed: {}", operation, e.getMessage());
+    }
+}
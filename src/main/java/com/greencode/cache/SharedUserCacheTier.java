@@ -0,0 +1,29 @@
+package com.greencode.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Cache tier shared by every application node. Implementations must treat their own
+ * failures as misses: the database stays the source of truth.
+ */
+public interface SharedUserCacheTier {
+
+    Optional<String> get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    void evict(Collection<String> keys);
+
+    /**
+     * Broadcasts an invalidation so other nodes can drop the keys from their near caches.
+     */
+    void publishInvalidation(String message);
+
+    /**
+     * Registers the handler that receives invalidations broadcast by other nodes.
+     */
+    void onInvalidation(Consumer<String> handler);
+}
@@ -0,0 +1,303 @@
+package com.greencode.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for user lookups: a bounded Caffeine near cache in front of a shared tier
+ * (Redis in deployed environments). It holds the {@link UserDto} projection, never the
+ * entity, so password hashes are not cached. Users are stored once under their id; username and
+ * email keys only point at the id, so invalidating a user touches a fixed set of keys.
+ *
+ * A read that loaded the user before a concurrent update committed must not put the old value
+ * back after the update's invalidation. Invalidation therefore leaves a short-lived tombstone
+ * per id, and a fill is skipped, or undone, while one exists.
+ */
+@Component
+public class UserCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCache.class);
+
+    // Versioned so entries written by earlier builds, which cached the entity, are never read
+    private static final String SHARED_PREFIX = "greencode:users:v2:";
+    private static final String TOMBSTONE_PREFIX = "tombstone:";
+
+    @Autowired
+    private SharedUserCacheTier sharedTier;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greencode.cache.users.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${greencode.cache.users.local.ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${greencode.cache.users.shared.ttl:10m}")
+    private Duration sharedTtl;
+
+    // Must outlast the slowest load that could race an update
+    @Value("${greencode.cache.users.tombstone-ttl:10s}")
+    private Duration tombstoneTtl;
+
+    private Cache<Long, UserDto> localUsers;
+    private Cache<String, Long> localIds;
+    private Cache<Long, Boolean> localTombstones;
+
+    private Counter sharedHits;
+    private Counter sharedMisses;
+
+    @PostConstruct
+    void init() {
+        localUsers = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+        localIds = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize * 2)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+        localTombstones = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(tombstoneTtl)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localUsers, "users.local");
+        CaffeineCacheMetrics.monitor(meterRegistry, localIds, "users.local.ids");
+
+        sharedHits = Counter.builder("greencode.users.cache.requests")
+            .tag("tier", "shared").tag("result", "hit")
+            .register(meterRegistry);
+        sharedMisses = Counter.builder("greencode.users.cache.requests")
+            .tag("tier", "shared").tag("result", "miss")
+            .register(meterRegistry);
+
+        sharedTier.onInvalidation(this::handleInvalidation);
+    }
+
+    public Optional<UserDto> getById(Long id, Supplier<Optional<UserDto>> loader) {
+        UserDto local = localUsers.getIfPresent(id);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        UserDto shared = sharedUser(id);
+        (shared != null ? sharedHits : sharedMisses).increment();
+        if (shared != null) {
+            return Optional.of(shared);
+        }
+        Optional<UserDto> loaded = loader.get();
+        loaded.ifPresent(this::store);
+        return loaded;
+    }
+
+    public Optional<UserDto> getByUsername(String username, Supplier<Optional<UserDto>> loader) {
+        return getByPointer(usernameKey(username), user -> username.equals(user.getUsername()), loader);
+    }
+
+    public Optional<UserDto> getByEmail(String email, Supplier<Optional<UserDto>> loader) {
+        return getByPointer(emailKey(email), user -> email.equals(user.getEmail()), loader);
+    }
+
+    /**
+     * Drops every key of the user, under both its previous and current username/email, from
+     * this node, the shared tier and (via broadcast) every other node's near cache. When called
+     * inside a transaction the eviction is deferred until the transaction has committed.
+     */
+    public void invalidate(User user, String previousUsername, String previousEmail) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(idKey(user.getId()));
+        addIfPresent(keys, previousUsername, UserCache::usernameKey);
+        addIfPresent(keys, user.getUsername(), UserCache::usernameKey);
+        addIfPresent(keys, previousEmail, UserCache::emailKey);
+        addIfPresent(keys, user.getEmail(), UserCache::emailKey);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(keys);
+                }
+            });
+        } else {
+            evictEverywhere(keys);
+        }
+    }
+
+    /**
+     * A lookup that needs the shared tier for the pointer, the user or both counts once: as a
+     * hit when it is answered from the cache, and as a miss when it falls through to the loader.
+     */
+    private Optional<UserDto> getByPointer(String pointerKey, Predicate<UserDto> matches,
+                                           Supplier<Optional<UserDto>> loader) {
+        boolean usedShared = false;
+        Long id = localIds.getIfPresent(pointerKey);
+        if (id == null) {
+            usedShared = true;
+            id = sharedTier.get(SHARED_PREFIX + pointerKey).map(Long::valueOf).orElse(null);
+        }
+        if (id != null) {
+            UserDto cached = localUsers.getIfPresent(id);
+            if (cached == null) {
+                usedShared = true;
+                cached = sharedUser(id);
+            }
+            // A pointer can outlive a rename by a few milliseconds; never serve a mismatch
+            if (cached != null && matches.test(cached)) {
+                localIds.put(pointerKey, id);
+                if (usedShared) {
+                    sharedHits.increment();
+                }
+                return Optional.of(cached);
+            }
+        }
+        if (usedShared) {
+            sharedMisses.increment();
+        }
+        Optional<UserDto> loaded = loader.get();
+        loaded.ifPresent(this::store);
+        return loaded;
+    }
+
+    // The user from the shared tier, copied into the near cache; uncounted, callers count the request
+    private UserDto sharedUser(Long id) {
+        Optional<String> shared = sharedTier.get(SHARED_PREFIX + idKey(id));
+        if (shared.isEmpty()) {
+            return null;
+        }
+        UserDto user = deserialize(shared.get());
+        if (user != null) {
+            localUsers.put(id, user);
+        }
+        return user;
+    }
+
+    private void store(UserDto user) {
+        if (tombstoned(user.getId())) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize user {} for caching: {}", user.getId(), e.getMessage());
+            return;
+        }
+        // Keep a private copy so the caller's instance can never change what is cached
+        UserDto copy = deserialize(json);
+        if (copy == null) {
+            return;
+        }
+        localUsers.put(user.getId(), copy);
+        localIds.put(usernameKey(user.getUsername()), user.getId());
+        localIds.put(emailKey(user.getEmail()), user.getId());
+
+        String id = String.valueOf(user.getId());
+        sharedTier.put(SHARED_PREFIX + idKey(user.getId()), json, sharedTtl);
+        sharedTier.put(SHARED_PREFIX + usernameKey(user.getUsername()), id, sharedTtl);
+        sharedTier.put(SHARED_PREFIX + emailKey(user.getEmail()), id, sharedTtl);
+
+        // The invalidation may have landed between the check above and these puts; the tombstone
+        // is written before the eviction, so seeing it now means our copy may be stale
+        if (tombstoned(user.getId())) {
+            localUsers.invalidate(user.getId());
+            sharedTier.evict(List.of(SHARED_PREFIX + idKey(user.getId())));
+        }
+    }
+
+    private boolean tombstoned(Long id) {
+        return localTombstones.getIfPresent(id) != null
+            || sharedTier.get(SHARED_PREFIX + TOMBSTONE_PREFIX + idKey(id)).isPresent();
+    }
+
+    private UserDto deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, UserDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached user: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void evictEverywhere(Set<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith("id:")) {
+                sharedTier.put(SHARED_PREFIX + TOMBSTONE_PREFIX + key, "1", tombstoneTtl);
+            }
+        }
+        evictLocal(keys);
+        sharedTier.evict(keys.stream().map(key -> SHARED_PREFIX + key).toList());
+        try {
+            sharedTier.publishInvalidation(objectMapper.writeValueAsString(keys));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not publish user cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void handleInvalidation(String message) {
+        try {
+            evictLocal(objectMapper.readValue(message, new TypeReference<List<String>>() {}));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed user cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void evictLocal(Iterable<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith("id:")) {
+                Long id = Long.valueOf(key.substring(3));
+                localTombstones.put(id, Boolean.TRUE);
+                localUsers.invalidate(id);
+            } else {
+                localIds.invalidate(key);
+            }
+        }
+    }
+
+    private static void addIfPresent(Set<String> keys, String value, Function<String, String> key) {
+        if (value != null) {
+            keys.add(key.apply(value));
+        }
+    }
+
+    private static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + username;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+}
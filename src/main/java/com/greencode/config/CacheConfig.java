@@ -0,0 +1,39 @@
+package com.greencode.config;
+
+import com.greencode.cache.InMemoryUserCacheTier;
+import com.greencode.cache.RedisUserCacheTier;
+import com.greencode.cache.SharedUserCacheTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "greencode.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer userCacheListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "greencode.cache.redis.enabled", havingValue = "true")
+    public SharedUserCacheTier redisUserCacheTier(StringRedisTemplate redisTemplate,
+                                                  RedisMessageListenerContainer userCacheListenerContainer,
+                                                  MeterRegistry meterRegistry) {
+        return new RedisUserCacheTier(redisTemplate, userCacheListenerContainer, meterRegistry);
+    }
+
+    // Embedded stand-in for Redis in development and tests
+    @Bean
+    @ConditionalOnProperty(name = "greencode.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+    public SharedUserCacheTier inMemoryUserCacheTier() {
+        return new InMemoryUserCacheTier();
+    }
+}
@@ -0,0 +1,81 @@
+package com.greencode.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with a primary/replica router when
+ * greencode.datasource.routing.enabled is set. Each target gets its own Hikari pool whose
+ * metrics are published under hikaricp.* tagged with the pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "greencode.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    // A bean of its own so the context closes the pools it owns on shutdown
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(RoutingDataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        List<RoutingDataSourceProperties.Target> replicas = properties.getReplicas();
+
+        Map<Object, Object> targets = new HashMap<>();
+        HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, properties.getPrimary(), false, metrics);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String name = ReplicaRoutingDataSource.REPLICA_PREFIX + i;
+            targets.put(name, pool(name, replicas.get(i), true, metrics));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicas.size());
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        // Defers the routing decision until the first statement, after the transaction is set up
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(RoutingDataSourceProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+            new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static HikariDataSource pool(String name, RoutingDataSourceProperties.Target target, boolean readOnly,
+                                         MicrometerMetricsTrackerFactory metrics) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(target.getUrl());
+        dataSource.setUsername(target.getUsername());
+        dataSource.setPassword(target.getPassword());
+        if (target.getDriverClassName() != null) {
+            dataSource.setDriverClassName(target.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(target.getMaximumPoolSize());
+        dataSource.setReadOnly(readOnly);
+        dataSource.setMetricsTrackerFactory(metrics);
+        return dataSource;
+    }
+}
@@ -0,0 +1,45 @@
+package com.greencode.config;
+
+/**
+ * Per-request read-your-writes state, installed by {@link ReadYourWritesFilter}. A request is
+ * pinned to the primary when its client wrote recently or when the request itself has already
+ * opened a read-write transaction. Outside a request (jobs, startup) nothing is pinned.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {}
+
+    static void begin(boolean pinnedToPrimary) {
+        State state = new State();
+        state.pinned = pinnedToPrimary;
+        CURRENT.set(state);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        State state = CURRENT.get();
+        return state != null && (state.pinned || state.wrote);
+    }
+
+    public static void markWrite() {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    public static boolean hasWritten() {
+        State state = CURRENT.get();
+        return state != null && state.wrote;
+    }
+
+    private static final class State {
+        private boolean pinned;
+        private boolean wrote;
+    }
+}
@@ -0,0 +1,123 @@
+package com.greencode.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Gives each client read-your-writes consistency on top of replica routing. When a request
+ * runs a read-write transaction, the response carries a cookie holding the time until which
+ * that client's reads must stay on the primary; requests presenting an unexpired cookie are
+ * pinned to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "GC_PRIMARY_UNTIL";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWritesContext.begin(pinnedUntil(request) > System.currentTimeMillis());
+        PinningResponse pinningResponse = new PinningResponse(response);
+        try {
+            filterChain.doFilter(request, pinningResponse);
+            pinningResponse.pinIfWritten();
+        } finally {
+            ReadYourWritesContext.end();
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the pin cookie just before the response is committed, which is the last moment
+     * headers can still be set.
+     */
+    private class PinningResponse extends HttpServletResponseWrapper {
+
+        private boolean pinned;
+
+        PinningResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void pinIfWritten() {
+            if (pinned || !ReadYourWritesContext.hasWritten() || isCommitted()) {
+                return;
+            }
+            Cookie cookie = new Cookie(COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            addCookie(cookie);
+            pinned = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            pinIfWritten();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            pinIfWritten();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            pinIfWritten();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            pinIfWritten();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            pinIfWritten();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            pinIfWritten();
+            super.sendRedirect(location);
+        }
+    }
+}
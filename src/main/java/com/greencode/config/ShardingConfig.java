@@ -0,0 +1,69 @@
+package com.greencode.config;
+
+import com.greencode.repository.sharding.ShardedUserRepository;
+import com.greencode.repository.sharding.TimeOrderedIdGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sets up the sharded users store when greencode.sharding.enabled is set: one Hikari pool per
+ * shard plus one for the global index, all publishing hikaricp.* metrics. UserService then
+ * keeps users there instead of in the JPA users table. The pools are kept out of the
+ * application context so they never compete with the JPA DataSource; the repository closes
+ * them on shutdown.
+ */
+@Configuration
+@ConditionalOnProperty(name = "greencode.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardScatterExecutor(ShardingProperties properties) {
+        return Executors.newFixedThreadPool(properties.getScatterThreads());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardedUserRepository shardedUserRepository(ShardingProperties properties,
+                                                       ExecutorService shardScatterExecutor,
+                                                       MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            shards.add(pool("users-shard-" + i, properties.getShards().get(i), metrics));
+        }
+        ShardedUserRepository repository = new ShardedUserRepository(
+            shards,
+            pool("users-index", properties.getIndex(), metrics),
+            new TimeOrderedIdGenerator(properties.getNodeId()),
+            shardScatterExecutor,
+            meterRegistry);
+        repository.initializeSchema();
+        return repository;
+    }
+
+    private static HikariDataSource pool(String name, ShardingProperties.Database target,
+                                         MicrometerMetricsTrackerFactory metrics) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(target.getUrl());
+        dataSource.setUsername(target.getUsername());
+        dataSource.setPassword(target.getPassword());
+        if (target.getDriverClassName() != null) {
+            dataSource.setDriverClassName(target.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(target.getMaximumPoolSize());
+        dataSource.setMetricsTrackerFactory(metrics);
+        return dataSource;
+    }
+}
@@ -0,0 +1,113 @@
+package com.greencode.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "greencode.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    // Unique per application instance; part of every generated user id
+    private int nodeId;
+
+    // Threads used to query all shards in parallel for listings
+    private int scatterThreads = 8;
+
+    private List<Database> shards = new ArrayList<>();
+
+    // Holds the global username/email -> shard index
+    private Database index = new Database();
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(int nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getScatterThreads() {
+        return scatterThreads;
+    }
+
+    public void setScatterThreads(int scatterThreads) {
+        this.scatterThreads = scatterThreads;
+    }
+
+    public List<Database> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Database> shards) {
+        this.shards = shards;
+    }
+
+    public Database getIndex() {
+        return index;
+    }
+
+    public void setIndex(Database index) {
+        this.index = index;
+    }
+
+    // Connection settings for one shard or the index database
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.greencode.controller;
+
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.LeaderboardEntryDto;
+import com.greencode.dto.NearbyProjectDto;
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFacetPageDto;
+import com.greencode.dto.ProjectFacetQuery;
+import com.greencode.dto.ProjectFilter;
+import com.greencode.dto.ProjectPercentilesDto;
+import com.greencode.dto.ProjectRankDto;
+import com.greencode.dto.ProjectRollupDto;
+import com.greencode.dto.ProjectSearchHitDto;
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectQuantileSketch;
+import com.greencode.index.ClusterIndex;
+import com.greencode.service.ProjectClusterService;
+import com.greencode.service.ProjectPercentileService;
+import com.greencode.service.ProjectRollupService;
+import com.greencode.service.ProjectService;
+import com.greencode.service.ProjectTimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/projects")
+@CrossOrigin(origins = "*")
+public class ProjectController {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectClusterService projectClusterService;
+
+    @Autowired
+    private ProjectRollupService projectRollupService;
+
+    @Autowired
+    private ProjectPercentileService projectPercentileService;
+
+    @Autowired
+    private ProjectTimelineService projectTimelineService;
+
+    /**
+     * Filtered listing, e.g. /projects?category=FORESTRY&status=IN_PROGRESS&startFrom=2024-01-01
+     * &minImpact=7. Every criterion is optional; pages are keyset-paginated via the returned cursor.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<ProjectDto>> getProjects(@ModelAttribute ProjectFilter filter,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        CursorPage<ProjectDto> projects = projectService.getProjects(filter, cursor, size);
+        return ResponseEntity.ok(projects);
+    }
+
+    /**
+     * Full-text search, e.g. /projects/search?q=solar+kampala&category=RENEWABLE_ENERGY. Words
+     * also match as prefixes and with small typos; results are ranked by relevance.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProjectSearchHitDto>> searchProjects(
+            @RequestParam String q,
+            @RequestParam(required = false) Project.ProjectCategory category,
+            @RequestParam(required = false) Project.ProjectStatus status,
+            @RequestParam(required = false) Integer limit) {
+        List<ProjectSearchHitDto> hits = projectService.searchProjects(q, category, status, limit);
+        return ResponseEntity.ok(hits);
+    }
+
+    /**
+     * Faceted browser search, e.g. /projects/facets?category=FORESTRY&impact=7-8&teamSize=6-20.
+     * Returns a page of matches, the total, and counts for every facet value.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProjectFacetPageDto> searchFacets(@ModelAttribute ProjectFacetQuery query,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        ProjectFacetPageDto page = projectService.searchFacets(query, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyProjectDto>> getProjectsNear(@RequestParam double lat,
+                                                                  @RequestParam double lng,
+                                                                  @RequestParam double radiusKm,
+                                                                  @RequestParam(required = false) Integer limit) {
+        List<NearbyProjectDto> projects = projectService.getProjectsNear(lat, lng, radiusKm, limit);
+        return ResponseEntity.ok(projects);
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<List<NearbyProjectDto>> getProjectsWithin(@RequestParam double minLat,
+                                                                    @RequestParam double minLng,
+                                                                    @RequestParam double maxLat,
+                                                                    @RequestParam double maxLng,
+                                                                    @RequestParam(required = false) Double lat,
+                                                                    @RequestParam(required = false) Double lng,
+                                                                    @RequestParam(required = false) Integer limit) {
+        List<NearbyProjectDto> projects =
+            projectService.getProjectsWithin(minLat, minLng, maxLat, maxLng, lat, lng, limit);
+        return ResponseEntity.ok(projects);
+    }
+
+    /**
+     * Projects active at any point between two dates, e.g.
+     * /projects/timeline?from=2024-01-01&to=2024-03-31&category=FORESTRY, streamed as NDJSON in
+     * start-date order.
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<StreamingResponseBody> getTimeline(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Project.ProjectCategory category,
+            @RequestParam(required = false) Project.ProjectStatus status) {
+        // Validate before streaming starts, while an error can still become a 400
+        projectTimelineService.checkWindow(from, to);
+        StreamingResponseBody body =
+            out -> projectTimelineService.streamTimeline(from, to, category, status, out);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("application", "x-ndjson"))
+            .body(body);
+    }
+
+    /**
+     * Marker clusters of public projects for one XYZ map tile. Single projects come back with
+     * their id and a count of 1.
+     */
+    @GetMapping("/clusters/{z}/{x}/{y}")
+    public ResponseEntity<List<ClusterIndex.Feature>> getClusterTile(
+            @PathVariable int z, @PathVariable int x, @PathVariable int y,
+            @RequestParam(required = false) Project.ProjectCategory category,
+            @RequestParam(required = false) Project.ProjectStatus status) {
+        List<ClusterIndex.Feature> features = projectClusterService.getTile(z, x, y, category, status);
+        return ResponseEntity.ok(features);
+    }
+
+    /**
+     * Project count, budget and actual cost totals per category and status, read from the
+     * maintained rollup rows rather than aggregated from projects.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<ProjectRollupDto>> getRollups(
+            @RequestParam(required = false) Project.ProjectCategory category,
+            @RequestParam(required = false) Project.ProjectStatus status) {
+        List<ProjectRollupDto> rollups = projectRollupService.getRollups(category, status);
+        return ResponseEntity.ok(rollups);
+    }
+
+    /**
+     * Estimated percentiles of budget, actual cost or overrun, e.g.
+     * /projects/percentiles?metric=OVERRUN&category=FORESTRY&q=0.5,0.9. Omitting category or
+     * status merges the sketches of every value.
+     */
+    @GetMapping("/percentiles")
+    public ResponseEntity<ProjectPercentilesDto> getPercentiles(
+            @RequestParam ProjectQuantileSketch.Metric metric,
+            @RequestParam(required = false) Project.ProjectCategory category,
+            @RequestParam(required = false) Project.ProjectStatus status,
+            @RequestParam(defaultValue = "0.5,0.9") List<Double> q) {
+        ProjectPercentilesDto percentiles =
+            projectPercentileService.getPercentiles(metric, category, status, q);
+        return ResponseEntity.ok(percentiles);
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboard(
+            @RequestParam Project.ProjectCategory category,
+            @RequestParam(required = false) Integer limit) {
+        List<LeaderboardEntryDto> leaderboard = projectService.getLeaderboard(category, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<ProjectRankDto> getProjectRank(@PathVariable Long id) {
+        Optional<ProjectRankDto> rank = projectService.getProjectRank(id);
+        return rank.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ProjectDto> getProjectById(@PathVariable Long id) {
+        Optional<ProjectDto> project = projectService.getProjectById(id);
+        return project.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<ProjectDto> createProject(@Valid @RequestBody Project project) {
+        ProjectDto createdProject = projectService.createProject(project);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdProject);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ProjectDto> updateProject(@PathVariable Long id, @Valid @RequestBody Project projectDetails) {
+        try {
+            ProjectDto updatedProject = projectService.updateProject(id, projectDetails);
+            return ResponseEntity.ok(updatedProject);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
+        try {
+            projectService.deleteProject(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.greencode.controller;
 
+import com.greencode.dto.BulkCreateResult;
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.UserDto;
+import com.greencode.dto.UserPatchRequest;
 import com.greencode.entity.User;
+import com.greencode.exception.CapacityExceededException;
+import com.greencode.exception.DuplicateUserException;
+import com.greencode.service.UserExportService;
 import com.greencode.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -19,35 +29,65 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserExportService userExportService;
+
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserDto>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        CursorPage<UserDto> users = userService.getAllUsers(cursor, size);
         return ResponseEntity.ok(users);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<list<User>> getActiveUsers(){
-        List<User> users = userService.getActiveUsers();
+    public ResponseEntity<CursorPage<UserDto>> getActiveUsers(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        CursorPage<UserDto> users = userService.getActiveUsers(cursor, size);
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = UserExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean csv = exportFormat == UserExportService.ExportFormat.CSV;
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"")
+            .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam String prefix,
+                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.searchUsers(prefix, limit));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        Optional<User> user = userService.getUserById(id);
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
+        Optional<UserDto> user = userService.getUserById(id);
         return user.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/username/{username}")
-    public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
-        Optional<User> user = userService.getUserByUsername(username);
+    public ResponseEntity<UserDto> getUserByUsername(@PathVariable String username) {
+        Optional<UserDto> user = userService.getUserByUsername(username);
         return user.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
-        Optional<User> user = userService.getUserByEmail(email);
+    public ResponseEntity<UserDto> getUserByEmail(@PathVariable String email) {
+        Optional<UserDto> user = userService.getUserByEmail(email);
         return user.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -57,16 +97,39 @@ public class UserController {
         try {
             User createdUser = userService.createUser(user);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        } catch (CapacityExceededException | DuplicateUserException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResult> createUsers(@RequestBody List<User> users) {
+        BulkCreateResult result = userService.createUsers(users);
+        HttpStatus status = result.getCreatedCount() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
         try {
             User updatedUser = userService.updateUser(id, userDetails);
             return ResponseEntity.ok(updatedUser);
+        } catch (CapacityExceededException | DuplicateUserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<User> patchUser(@PathVariable Long id, @Valid @RequestBody UserPatchRequest patch) {
+        try {
+            User updatedUser = userService.patchUser(id, patch);
+            return ResponseEntity.ok(updatedUser);
+        } catch (CapacityExceededException | DuplicateUserException | IllegalArgumentException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,63 @@
+package com.greencode.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk create: the rows that were inserted and, for every rejected row,
+ * its position in the request and the reason.
+ */
+public class BulkCreateResult {
+
+    private final List<UserDto> created = new ArrayList<>();
+    private final List<RowFailure> failures = new ArrayList<>();
+
+    public void addCreated(UserDto user) {
+        created.add(user);
+    }
+
+    public void addFailure(int index, String username, String message) {
+        failures.add(new RowFailure(index, username, message));
+    }
+
+    // Getters
+    public List<UserDto> getCreated() {
+        return created;
+    }
+
+    public List<RowFailure> getFailures() {
+        return failures;
+    }
+
+    public int getCreatedCount() {
+        return created.size();
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    public static class RowFailure {
+        private final int index;
+        private final String username;
+        private final String message;
+
+        public RowFailure(int index, String username, String message) {
+            this.index = index;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.greencode.dto;
+
+public class LeaderboardEntryDto {
+
+    private final int rank;
+    private final ProjectDto project;
+
+    public LeaderboardEntryDto(int rank, ProjectDto project) {
+        this.rank = rank;
+        this.project = project;
+    }
+
+    // Getters
+    public int getRank() {
+        return rank;
+    }
+
+    public ProjectDto getProject() {
+        return project;
+    }
+}
@@ -0,0 +1,24 @@
+package com.greencode.dto;
+
+/**
+ * A project returned by a spatial query with its great-circle distance from the query point.
+ */
+public class NearbyProjectDto {
+
+    private final ProjectDto project;
+    private final double distanceKm;
+
+    public NearbyProjectDto(ProjectDto project, double distanceKm) {
+        this.project = project;
+        this.distanceKm = distanceKm;
+    }
+
+    // Getters
+    public ProjectDto getProject() {
+        return project;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+}
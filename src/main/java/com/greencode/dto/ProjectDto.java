@@ -0,0 +1,246 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ProjectDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Project.ProjectCategory category;
+    private Project.ProjectStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal budget;
+    private BigDecimal actualCost;
+    private String location;
+    private String coordinates;
+    private Double latitude;
+    private Double longitude;
+    private Integer impactScore;
+    private Integer sustainabilityRating;
+    private Long managerId;
+    private Integer teamSize;
+    private Boolean isPublic;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProjectDto() {}
+
+    // Used by JPQL constructor projections for listings, which leave out the TEXT description
+    public ProjectDto(Long id, String name, Project.ProjectCategory category, Project.ProjectStatus status,
+                      LocalDate startDate, LocalDate endDate, BigDecimal budget, BigDecimal actualCost,
+                      String location, String coordinates, Double latitude, Double longitude,
+                      Integer impactScore, Integer sustainabilityRating,
+                      Long managerId, Integer teamSize, Boolean isPublic,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.budget = budget;
+        this.actualCost = actualCost;
+        this.location = location;
+        this.coordinates = coordinates;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.impactScore = impactScore;
+        this.sustainabilityRating = sustainabilityRating;
+        this.managerId = managerId;
+        this.teamSize = teamSize;
+        this.isPublic = isPublic;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public ProjectDto(Project project) {
+        this.id = project.getId();
+        this.name = project.getName();
+        this.description = project.getDescription();
+        this.category = project.getCategory();
+        this.status = project.getStatus();
+        this.startDate = project.getStartDate();
+        this.endDate = project.getEndDate();
+        this.budget = project.getBudget();
+        this.actualCost = project.getActualCost();
+        this.location = project.getLocation();
+        this.coordinates = project.getCoordinates();
+        this.latitude = project.getLatitude();
+        this.longitude = project.getLongitude();
+        this.impactScore = project.getImpactScore();
+        this.sustainabilityRating = project.getSustainabilityRating();
+        this.managerId = project.getManager() != null ? project.getManager().getId() : null;
+        this.teamSize = project.getTeamSize();
+        this.isPublic = project.getIsPublic();
+        this.createdAt = project.getCreatedAt();
+        this.updatedAt = project.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Project.ProjectCategory category) {
+        this.category = category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Project.ProjectStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public BigDecimal getBudget() {
+        return budget;
+    }
+
+    public void setBudget(BigDecimal budget) {
+        this.budget = budget;
+    }
+
+    public BigDecimal getActualCost() {
+        return actualCost;
+    }
+
+    public void setActualCost(BigDecimal actualCost) {
+        this.actualCost = actualCost;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(String coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Integer getImpactScore() {
+        return impactScore;
+    }
+
+    public void setImpactScore(Integer impactScore) {
+        this.impactScore = impactScore;
+    }
+
+    public Integer getSustainabilityRating() {
+        return sustainabilityRating;
+    }
+
+    public void setSustainabilityRating(Integer sustainabilityRating) {
+        this.sustainabilityRating = sustainabilityRating;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
+
+    public Integer getTeamSize() {
+        return teamSize;
+    }
+
+    public void setTeamSize(Integer teamSize) {
+        this.teamSize = teamSize;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
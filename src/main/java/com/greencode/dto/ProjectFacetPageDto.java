@@ -0,0 +1,54 @@
+package com.greencode.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of faceted search results. Unlike {@link CursorPage} it carries the total number of
+ * matches, which the facet bitmaps give for free, and the counts of every facet value.
+ */
+public class ProjectFacetPageDto {
+
+    private final List<ProjectDto> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final int total;
+    private final Map<String, Map<String, Integer>> facets;
+
+    public ProjectFacetPageDto(List<ProjectDto> content, int size, boolean hasNext, String nextCursor,
+                               int total, Map<String, Map<String, Integer>> facets) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    // Getters
+    public List<ProjectDto> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    // Facet -> value -> matches; each facet's counts ignore that facet's own selection
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,71 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+
+/**
+ * Facet selections for the project browser, bound from query parameters. Each facet takes at
+ * most one value; unset facets do not filter.
+ */
+public class ProjectFacetQuery {
+
+    private Project.ProjectCategory category;
+    private Project.ProjectStatus status;
+    private Integer sustainabilityRating;
+
+    // Impact score bucket: 1-3, 4-6, 7-8 or 9-10
+    private String impact;
+
+    private Boolean isPublic;
+
+    // Team size band: 1-5, 6-20, 21-50 or 51+
+    private String teamSize;
+
+    // Getters and Setters
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Project.ProjectCategory category) {
+        this.category = category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Project.ProjectStatus status) {
+        this.status = status;
+    }
+
+    public Integer getSustainabilityRating() {
+        return sustainabilityRating;
+    }
+
+    public void setSustainabilityRating(Integer sustainabilityRating) {
+        this.sustainabilityRating = sustainabilityRating;
+    }
+
+    public String getImpact() {
+        return impact;
+    }
+
+    public void setImpact(String impact) {
+        this.impact = impact;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public String getTeamSize() {
+        return teamSize;
+    }
+
+    public void setTeamSize(String teamSize) {
+        this.teamSize = teamSize;
+    }
+}
@@ -0,0 +1,96 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria for project listings, bound from query parameters. Unset criteria are left
+ * out of the generated query entirely rather than matched with "IS NULL OR" guards, so the
+ * planner can pick the composite index that fits the predicates actually present.
+ */
+public class ProjectFilter {
+
+    private Project.ProjectCategory category;
+    private Project.ProjectStatus status;
+
+    // Inclusive range on startDate
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startTo;
+
+    private Boolean isPublic;
+    private Long managerId;
+
+    // Inclusive range on impactScore (1-10)
+    private Integer minImpact;
+    private Integer maxImpact;
+
+    // Getters and Setters
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Project.ProjectCategory category) {
+        this.category = category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Project.ProjectStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getStartFrom() {
+        return startFrom;
+    }
+
+    public void setStartFrom(LocalDate startFrom) {
+        this.startFrom = startFrom;
+    }
+
+    public LocalDate getStartTo() {
+        return startTo;
+    }
+
+    public void setStartTo(LocalDate startTo) {
+        this.startTo = startTo;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
+
+    public Integer getMinImpact() {
+        return minImpact;
+    }
+
+    public void setMinImpact(Integer minImpact) {
+        this.minImpact = minImpact;
+    }
+
+    public Integer getMaxImpact() {
+        return maxImpact;
+    }
+
+    public void setMaxImpact(Integer maxImpact) {
+        this.maxImpact = maxImpact;
+    }
+}
@@ -0,0 +1,61 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectQuantileSketch;
+
+import java.util.Map;
+
+public class ProjectPercentilesDto {
+
+    private final ProjectQuantileSketch.Metric metric;
+    private final Project.ProjectCategory category;
+    private final Project.ProjectStatus status;
+    private final long sampleCount;
+    private final Double min;
+    private final Double max;
+    private final Map<Double, Double> quantiles;
+
+    public ProjectPercentilesDto(ProjectQuantileSketch.Metric metric, Project.ProjectCategory category,
+                                 Project.ProjectStatus status, long sampleCount, Double min, Double max,
+                                 Map<Double, Double> quantiles) {
+        this.metric = metric;
+        this.category = category;
+        this.status = status;
+        this.sampleCount = sampleCount;
+        this.min = min;
+        this.max = max;
+        this.quantiles = quantiles;
+    }
+
+    // Getters
+    public ProjectQuantileSketch.Metric getMetric() {
+        return metric;
+    }
+
+    // Null when the figures cover every category
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    // Null when the figures cover every status
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    // Requested quantile -> estimated value; values are null when there are no samples
+    public Map<Double, Double> getQuantiles() {
+        return quantiles;
+    }
+}
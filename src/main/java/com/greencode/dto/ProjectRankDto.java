@@ -0,0 +1,35 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+
+public class ProjectRankDto {
+
+    private final Long projectId;
+    private final Project.ProjectCategory category;
+    private final int rank;
+    private final int rankedProjects;
+
+    public ProjectRankDto(Long projectId, Project.ProjectCategory category, int rank, int rankedProjects) {
+        this.projectId = projectId;
+        this.category = category;
+        this.rank = rank;
+        this.rankedProjects = rankedProjects;
+    }
+
+    // Getters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getRankedProjects() {
+        return rankedProjects;
+    }
+}
@@ -0,0 +1,49 @@
+package com.greencode.dto;
+
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectRollup;
+
+import java.math.BigDecimal;
+
+public class ProjectRollupDto {
+
+    private final Project.ProjectCategory category;
+    private final Project.ProjectStatus status;
+    private final long projectCount;
+    private final BigDecimal totalBudget;
+    private final BigDecimal totalActualCost;
+
+    public ProjectRollupDto(ProjectRollup rollup) {
+        this.category = rollup.getCategory();
+        this.status = rollup.getStatus();
+        this.projectCount = rollup.getProjectCount();
+        this.totalBudget = rollup.getTotalBudget();
+        this.totalActualCost = rollup.getTotalActualCost();
+    }
+
+    // Getters
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public long getProjectCount() {
+        return projectCount;
+    }
+
+    public BigDecimal getTotalBudget() {
+        return totalBudget;
+    }
+
+    public BigDecimal getTotalActualCost() {
+        return totalActualCost;
+    }
+
+    // Positive when the group has spent more than it budgeted
+    public BigDecimal getBudgetVariance() {
+        return totalActualCost.subtract(totalBudget);
+    }
+}
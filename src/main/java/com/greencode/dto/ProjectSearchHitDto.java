@@ -0,0 +1,21 @@
+package com.greencode.dto;
+
+public class ProjectSearchHitDto {
+
+    private final float score;
+    private final ProjectDto project;
+
+    public ProjectSearchHitDto(float score, ProjectDto project) {
+        this.score = score;
+        this.project = project;
+    }
+
+    // Getters
+    public float getScore() {
+        return score;
+    }
+
+    public ProjectDto getProject() {
+        return project;
+    }
+}
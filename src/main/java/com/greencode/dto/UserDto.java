@@ -34,6 +34,20 @@ public class UserDto {
     // Constructors
     public UserDto() {}
 
+    // Used by JPQL constructor projections, which select only these columns
+    public UserDto(Long id, String username, String email, String firstName, String lastName,
+                   User.UserRole role, Boolean isEnabled, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.isEnabled = isEnabled;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     public UserDto(User user) {
         this.id = user.getId();
         this.username = user.getUsername();
@@ -0,0 +1,104 @@
+package com.greencode.dto;
+
+import com.greencode.entity.User;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Body of PATCH /users/{id}. Setters record which properties were present in the JSON so
+ * an explicit null (clear the value) can be told apart from an omitted property (leave it).
+ */
+public class UserPatchRequest {
+
+    @Size(max = 50, message = "Username must be less than 50 characters")
+    private String username;
+
+    @Email(message = "Email should be valid")
+    @Size(max = 100, message = "Email must be less than 100 characters")
+    private String email;
+
+    @Size(max = 100, message = "First name must be less than 100 characters")
+    private String firstName;
+
+    @Size(max = 100, message = "Last name must be less than 100 characters")
+    private String lastName;
+
+    @Size(max = 120, message = "Password must be less than 120 characters")
+    private String password;
+
+    private User.UserRole role;
+    private Boolean isEnabled;
+
+    private final Set<String> presentFields = new HashSet<>();
+
+    public boolean has(String field) {
+        return presentFields.contains(field);
+    }
+
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+        presentFields.add("username");
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        presentFields.add("email");
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        presentFields.add("firstName");
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        presentFields.add("lastName");
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+        presentFields.add("password");
+    }
+
+    public User.UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(User.UserRole role) {
+        this.role = role;
+        presentFields.add("role");
+    }
+
+    public Boolean getIsEnabled() {
+        return isEnabled;
+    }
+
+    public void setIsEnabled(Boolean isEnabled) {
+        this.isEnabled = isEnabled;
+        presentFields.add("isEnabled");
+    }
+}
@@ -3,11 +3,23 @@ package com.greencode.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.SQLRestriction;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "projects")
+@SQLRestriction("is_active = true") // soft-deleted projects are invisible to every entity read
+@Table(name = "projects", indexes = {
+    // Listings are keyset-ordered on (created_at, id); equality filters lead so the index walk stays ordered
+    @Index(name = "idx_projects_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_projects_category_status_created_at_id", columnList = "category, status, created_at, id"),
+    @Index(name = "idx_projects_status_created_at_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_projects_manager_created_at_id", columnList = "manager_id, created_at, id"),
+    @Index(name = "idx_projects_public_created_at_id", columnList = "is_public, created_at, id"),
+    @Index(name = "idx_projects_category_start_date", columnList = "category, start_date"),
+    @Index(name = "idx_projects_category_impact_score", columnList = "category, impact_score")
+})
 public class Project extends BaseEntity {
 
     @NotBlank(message = "Project name is required")
@@ -45,6 +57,13 @@ public class Project extends BaseEntity {
     @Column(name = "coordinates")
     private String coordinates; // Latitude,Longitude format
 
+    // Parsed from coordinates on every write; used by the spatial index
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @Column(name = "impact_score")
     private Integer impactScore; // 1-10 scale
 
@@ -150,6 +169,22 @@ public class Project extends BaseEntity {
         this.coordinates = coordinates;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Integer getImpactScore() {
         return impactScore;
     }
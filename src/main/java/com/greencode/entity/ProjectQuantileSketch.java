@@ -0,0 +1,190 @@
+package com.greencode.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Serialized t-digest of one project money metric for one category and status, so a starting
+ * node can load its percentile sketches without scanning projects. Rows under
+ * {@link #SNAPSHOT_NODE} are the latest rebuild from projects; rows under a node id hold the
+ * projects that node created since the snapshot of the same generation.
+ */
+@Entity
+@IdClass(ProjectQuantileSketch.RowKey.class)
+@Table(name = "project_quantile_sketches")
+public class ProjectQuantileSketch {
+
+    public enum Metric {
+        BUDGET,
+        ACTUAL_COST,
+        // Actual cost minus budget, for projects that have both
+        OVERRUN
+    }
+
+    public static final String SNAPSHOT_NODE = "snapshot";
+
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 50)
+    private Project.ProjectCategory category;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private Project.ProjectStatus status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", length = 20)
+    private Metric metric;
+
+    // Serialized TDigest: 16 bytes per centroid, about 1.7 KB at the default compression
+    @Column(name = "digest", nullable = false, length = 32768)
+    private byte[] digest;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount = 0L;
+
+    // Start of the rebuild scan the row belongs to
+    @Column(name = "generation", nullable = false)
+    private LocalDateTime generation;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProjectQuantileSketch() {}
+
+    public ProjectQuantileSketch(String nodeId, Project.ProjectCategory category, Project.ProjectStatus status,
+                                 Metric metric) {
+        this.nodeId = nodeId;
+        this.category = category;
+        this.status = status;
+        this.metric = metric;
+    }
+
+    // Getters and Setters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public byte[] getDigest() {
+        return digest;
+    }
+
+    public void setDigest(byte[] digest) {
+        this.digest = digest;
+    }
+
+    public Long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(Long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public LocalDateTime getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(LocalDateTime generation) {
+        this.generation = generation;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Which sketch a row holds, independent of the node that wrote it
+    public static class Key implements Serializable {
+        private Project.ProjectCategory category;
+        private Project.ProjectStatus status;
+        private Metric metric;
+
+        public Key() {}
+
+        public Key(Project.ProjectCategory category, Project.ProjectStatus status, Metric metric) {
+            this.category = category;
+            this.status = status;
+            this.metric = metric;
+        }
+
+        public Project.ProjectCategory getCategory() {
+            return category;
+        }
+
+        public Project.ProjectStatus getStatus() {
+            return status;
+        }
+
+        public Metric getMetric() {
+            return metric;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return category == key.category && status == key.status && metric == key.metric;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, status, metric);
+        }
+    }
+
+    public static class RowKey implements Serializable {
+        private String nodeId;
+        private Project.ProjectCategory category;
+        private Project.ProjectStatus status;
+        private Metric metric;
+
+        public RowKey() {}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RowKey key)) {
+                return false;
+            }
+            return Objects.equals(nodeId, key.nodeId) && category == key.category && status == key.status
+                && metric == key.metric;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, category, status, metric);
+        }
+    }
+}
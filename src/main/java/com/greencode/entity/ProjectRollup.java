@@ -0,0 +1,134 @@
+package com.greencode.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Running totals of active projects for one category and status. Rows are adjusted by deltas in
+ * the same transaction as the project write, so reading them never scans projects.
+ */
+@Entity
+@IdClass(ProjectRollup.Key.class)
+@Table(name = "project_rollups")
+public class ProjectRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 50)
+    private Project.ProjectCategory category;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private Project.ProjectStatus status;
+
+    @Column(name = "project_count", nullable = false)
+    private Long projectCount = 0L;
+
+    @Column(name = "total_budget", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalBudget = BigDecimal.ZERO;
+
+    @Column(name = "total_actual_cost", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalActualCost = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Bumped by every delta, so reconciliation can tell whether a row moved since it was read
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Constructors
+    public ProjectRollup() {}
+
+    public ProjectRollup(Project.ProjectCategory category, Project.ProjectStatus status) {
+        this.category = category;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Project.ProjectCategory getCategory() {
+        return category;
+    }
+
+    public Project.ProjectStatus getStatus() {
+        return status;
+    }
+
+    public Long getProjectCount() {
+        return projectCount;
+    }
+
+    public void setProjectCount(Long projectCount) {
+        this.projectCount = projectCount;
+    }
+
+    public BigDecimal getTotalBudget() {
+        return totalBudget;
+    }
+
+    public void setTotalBudget(BigDecimal totalBudget) {
+        this.totalBudget = totalBudget;
+    }
+
+    public BigDecimal getTotalActualCost() {
+        return totalActualCost;
+    }
+
+    public void setTotalActualCost(BigDecimal totalActualCost) {
+        this.totalActualCost = totalActualCost;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public static class Key implements Serializable {
+        private Project.ProjectCategory category;
+        private Project.ProjectStatus status;
+
+        public Key() {}
+
+        public Key(Project.ProjectCategory category, Project.ProjectStatus status) {
+            this.category = category;
+            this.status = status;
+        }
+
+        public Project.ProjectCategory getCategory() {
+            return category;
+        }
+
+        public Project.ProjectStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return category == key.category && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, status);
+        }
+    }
+}
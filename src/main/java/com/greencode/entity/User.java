@@ -4,14 +4,25 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
+@DynamicUpdate
+@SQLRestriction("is_active = true") // soft-deleted users are invisible to every entity read
 @Table(name = "users", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "email"),
-    @UniqueConstraint(columnNames = "username")
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username")
+}, indexes = {
+    @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_users_active_created_at_id", columnList = "is_active, created_at, id")
 })
 public class User extends BaseEntity {
 
+    // Constraint names are matched when translating insert/update violations
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @NotBlank
     @Size(max = 50)
     @Column(name = "username", nullable = false)
@@ -0,0 +1,32 @@
+package com.greencode.event;
+
+import com.greencode.dto.ProjectDto;
+
+/**
+ * Published by ProjectService for every project write, carrying the project as it was before
+ * and after the change. {@code before} is null for a create and {@code after} is null for a
+ * (soft) delete. In-memory project indexes listen for it after the transaction commits; the
+ * budget rollups listen synchronously so their update is part of the same transaction.
+ */
+public class ProjectChangedEvent {
+
+    private final ProjectDto before;
+    private final ProjectDto after;
+
+    public ProjectChangedEvent(ProjectDto before, ProjectDto after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public ProjectDto getBefore() {
+        return before;
+    }
+
+    public ProjectDto getAfter() {
+        return after;
+    }
+
+    public Long getProjectId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
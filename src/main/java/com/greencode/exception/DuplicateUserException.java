@@ -0,0 +1,19 @@
+package com.greencode.exception;
+
+/**
+ * Thrown when a user write collides with the unique username or email constraint.
+ * Mapped to 409 Conflict, naming the field that is taken.
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    private final String field;
+
+    public DuplicateUserException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,319 @@
+package com.greencode.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Hierarchical point clustering for XYZ map tiles. Every zoom level from 0 to maxZoom keeps a
+ * grid of 4x4 cells per tile (about 64 px on a 256 px tile) in Web Mercator space; each cell holds
+ * the count and the coordinate sums of the points inside it, so a cluster's position is the
+ * centroid of its points. Grids nest exactly from one zoom to the next, which lets an add or
+ * remove update one cell per zoom level instead of reclustering.
+ *
+ * Points carry a small integer group (for example a category and status combination), so a
+ * tile can be served for any subset of groups by merging their cells. Beyond maxZoom tiles
+ * list the individual points.
+ */
+public class ClusterIndex {
+
+    public static final int MAX_TILE_ZOOM = 22;
+
+    private static final int CELL_BITS_PER_TILE = 2;
+    private static final int AXIS_BITS = 20;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final int maxZoom;
+    private final int groupCount;
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+    public ClusterIndex(int maxZoom, int groupCount) {
+        if (maxZoom < 0 || maxZoom + CELL_BITS_PER_TILE > AXIS_BITS) {
+            throw new IllegalArgumentException(
+                "Max zoom must be between 0 and " + (AXIS_BITS - CELL_BITS_PER_TILE));
+        }
+        if (groupCount < 1) {
+            throw new IllegalArgumentException("At least one group is required");
+        }
+        this.maxZoom = maxZoom;
+        this.groupCount = groupCount;
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public synchronized void put(long id, double latitude, double longitude, int group) {
+        if (group < 0 || group >= groupCount) {
+            throw new IllegalArgumentException("Group must be between 0 and " + (groupCount - 1));
+        }
+        remove(id);
+        Point point = new Point(id, latitude, longitude, mercatorX(longitude), mercatorY(latitude), group);
+        points.put(id, point);
+        for (int z = 0; z <= maxZoom; z++) {
+            boolean finest = z == maxZoom;
+            levels.get(z).compute(key(point, z), (key, cell) -> cell == null
+                ? new Cell(1, point.x, point.y, finest ? new long[] {id} : null)
+                : cell.plus(point, finest));
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        for (int z = 0; z <= maxZoom; z++) {
+            boolean finest = z == maxZoom;
+            levels.get(z).computeIfPresent(key(point, z), (key, cell) -> cell.minus(point, finest));
+        }
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * The clusters and single points of one tile, restricted to the groups accepted by the filter.
+     */
+    public List<Feature> tile(int z, int x, int y, IntPredicate groups) {
+        if (z < 0 || z > MAX_TILE_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_TILE_ZOOM);
+        }
+        long tiles = 1L << z;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " does not exist");
+        }
+        return z <= maxZoom ? clusters(z, x, y, groups) : points(z, x, y, groups);
+    }
+
+    private List<Feature> clusters(int z, int x, int y, IntPredicate groups) {
+        Map<Long, Cell> level = levels.get(z);
+        int side = 1 << CELL_BITS_PER_TILE;
+        List<Feature> features = new ArrayList<>();
+        for (int dy = 0; dy < side; dy++) {
+            for (int dx = 0; dx < side; dx++) {
+                long cx = ((long) x << CELL_BITS_PER_TILE) + dx;
+                long cy = ((long) y << CELL_BITS_PER_TILE) + dy;
+                int count = 0;
+                double sumX = 0;
+                double sumY = 0;
+                int singleGroup = -1;
+                for (int group = 0; group < groupCount; group++) {
+                    if (!groups.test(group)) {
+                        continue;
+                    }
+                    Cell cell = level.get(key(group, cx, cy));
+                    if (cell != null) {
+                        count += cell.count;
+                        sumX += cell.sumX;
+                        sumY += cell.sumY;
+                        singleGroup = group;
+                    }
+                }
+                if (count == 1) {
+                    Point point = findSingle(singleGroup, z, cx, cy);
+                    if (point != null) {
+                        features.add(new Feature(point.latitude, point.longitude, 1, point.id));
+                        continue;
+                    }
+                }
+                if (count > 0) {
+                    features.add(new Feature(latitude(sumY / count), longitude(sumX / count), count, null));
+                }
+            }
+        }
+        return features;
+    }
+
+    private List<Feature> points(int z, int x, int y, IntPredicate groups) {
+        double tileSize = 1.0 / (1L << z);
+        double minX = x * tileSize;
+        double minY = y * tileSize;
+        int finestShift = maxZoom + CELL_BITS_PER_TILE;
+        long cx0 = cell(minX, finestShift);
+        long cx1 = cell(Math.nextDown(minX + tileSize), finestShift);
+        long cy0 = cell(minY, finestShift);
+        long cy1 = cell(Math.nextDown(minY + tileSize), finestShift);
+
+        Map<Long, Cell> finest = levels.get(maxZoom);
+        List<Feature> features = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            if (!groups.test(group)) {
+                continue;
+            }
+            for (long cy = cy0; cy <= cy1; cy++) {
+                for (long cx = cx0; cx <= cx1; cx++) {
+                    Cell cell = finest.get(key(group, cx, cy));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (long id : cell.ids) {
+                        Point point = points.get(id);
+                        if (point != null && point.x >= minX && point.x < minX + tileSize
+                                && point.y >= minY && point.y < minY + tileSize) {
+                            features.add(new Feature(point.latitude, point.longitude, 1, point.id));
+                        }
+                    }
+                }
+            }
+        }
+        return features;
+    }
+
+    // A cell holding one point has exactly one non-empty child at every finer level
+    private Point findSingle(int group, int z, long cx, long cy) {
+        for (int level = z + 1; level <= maxZoom; level++) {
+            Map<Long, Cell> cells = levels.get(level);
+            long nextX = -1;
+            long nextY = -1;
+            for (int child = 0; child < 4 && nextX < 0; child++) {
+                long childX = (cx << 1) + (child & 1);
+                long childY = (cy << 1) + (child >> 1);
+                if (cells.containsKey(key(group, childX, childY))) {
+                    nextX = childX;
+                    nextY = childY;
+                }
+            }
+            if (nextX < 0) {
+                return null;
+            }
+            cx = nextX;
+            cy = nextY;
+        }
+        Cell cell = levels.get(maxZoom).get(key(group, cx, cy));
+        return cell != null && cell.ids.length == 1 ? points.get(cell.ids[0]) : null;
+    }
+
+    public static int tileX(double longitude, int z) {
+        return (int) cell(mercatorX(longitude), z);
+    }
+
+    public static int tileY(double latitude, int z) {
+        return (int) cell(mercatorY(latitude), z);
+    }
+
+    private long key(Point point, int z) {
+        int shift = z + CELL_BITS_PER_TILE;
+        return key(point.group, cell(point.x, shift), cell(point.y, shift));
+    }
+
+    private static long key(int group, long cx, long cy) {
+        return ((long) group << (2 * AXIS_BITS)) | (cx << AXIS_BITS) | cy;
+    }
+
+    private static long cell(double coordinate, int shift) {
+        long cells = 1L << shift;
+        return Math.max(0, Math.min(cells - 1, (long) (coordinate * cells)));
+    }
+
+    private static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    private static double mercatorY(double latitude) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static double longitude(double x) {
+        return x * 360 - 180;
+    }
+
+    private static double latitude(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    public static final class Feature {
+        private final double latitude;
+        private final double longitude;
+        private final int count;
+        private final Long projectId;
+
+        public Feature(double latitude, double longitude, int count, Long projectId) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.projectId = projectId;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // Null for clusters of more than one point
+        public Long getProjectId() {
+            return projectId;
+        }
+    }
+
+    private static final class Point {
+        final long id;
+        final double latitude;
+        final double longitude;
+        final double x;
+        final double y;
+        final int group;
+
+        Point(long id, double latitude, double longitude, double x, double y, int group) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.x = x;
+            this.y = y;
+            this.group = group;
+        }
+    }
+
+    // Immutable, so readers never see a half-applied update; member ids only at the finest level
+    private static final class Cell {
+        final int count;
+        final double sumX;
+        final double sumY;
+        final long[] ids;
+
+        Cell(int count, double sumX, double sumY, long[] ids) {
+            this.count = count;
+            this.sumX = sumX;
+            this.sumY = sumY;
+            this.ids = ids;
+        }
+
+        Cell plus(Point point, boolean finest) {
+            long[] members = null;
+            if (finest) {
+                members = Arrays.copyOf(ids, ids.length + 1);
+                members[ids.length] = point.id;
+            }
+            return new Cell(count + 1, sumX + point.x, sumY + point.y, members);
+        }
+
+        Cell minus(Point point, boolean finest) {
+            if (count == 1) {
+                return null;
+            }
+            long[] members = null;
+            if (finest) {
+                members = new long[ids.length - 1];
+                int next = 0;
+                for (long id : ids) {
+                    if (id != point.id && next < members.length) {
+                        members[next++] = id;
+                    }
+                }
+            }
+            return new Cell(count - 1, sumX - point.x, sumY - point.y, members);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.greencode.index;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One {@link RoaringBitmap} of ids per value of every facet. A search intersects the bitmaps of
+ * the selected values and, in the same call, counts every value of every facet. A facet's
+ * counts apply the other facets' selections but not its own, so the user can see how many
+ * results each alternative would give. Readers share a lock; writers take it exclusively.
+ */
+public class FacetIndex {
+
+    private final int facetCount;
+    private final List<Map<String, RoaringBitmap>> facets = new ArrayList<>();
+    private final Map<Integer, String[]> byId = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndex(int facetCount) {
+        if (facetCount < 1) {
+            throw new IllegalArgumentException("At least one facet is required");
+        }
+        this.facetCount = facetCount;
+        for (int i = 0; i < facetCount; i++) {
+            facets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Indexes a non-negative id with one value per facet, in facet order; a null value leaves
+     * the id out of that facet.
+     */
+    public void put(int id, String[] values) {
+        if (values.length != facetCount) {
+            throw new IllegalArgumentException("Expected " + facetCount + " facet values");
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Ids must not be negative");
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            String[] copy = values.clone();
+            for (int facet = 0; facet < facetCount; facet++) {
+                if (copy[facet] != null) {
+                    facets.get(facet).computeIfAbsent(copy[facet], value -> new RoaringBitmap()).add(id);
+                }
+            }
+            all.add(id);
+            byId.put(id, copy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids matching every selected value ({@code selected[f]} null means no selection on facet f),
+     * ascending after {@code afterId}, at most {@code limit}, together with the total number of
+     * matches and the per-value counts of every facet.
+     */
+    public Result search(String[] selected, int afterId, int limit) {
+        if (selected.length != facetCount) {
+            throw new IllegalArgumentException("Expected " + facetCount + " facet selections");
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] filters = new RoaringBitmap[facetCount];
+            for (int facet = 0; facet < facetCount; facet++) {
+                if (selected[facet] != null) {
+                    filters[facet] = facets.get(facet).getOrDefault(selected[facet], new RoaringBitmap());
+                }
+            }
+
+            RoaringBitmap matches = intersect(filters, -1);
+            List<Map<String, Integer>> counts = new ArrayList<>(facetCount);
+            for (int facet = 0; facet < facetCount; facet++) {
+                RoaringBitmap base = filters[facet] == null ? matches : intersect(filters, facet);
+                Map<String, Integer> facetCounts = new HashMap<>();
+                for (Map.Entry<String, RoaringBitmap> value : facets.get(facet).entrySet()) {
+                    facetCounts.put(value.getKey(), RoaringBitmap.andCardinality(base, value.getValue()));
+                }
+                counts.add(facetCounts);
+            }
+            return new Result(matches.getCardinality(), valuesAfter(matches, afterId, limit), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersection of all filters except the skipped facet, smallest first to keep it cheap
+    private RoaringBitmap intersect(RoaringBitmap[] filters, int skip) {
+        List<RoaringBitmap> selected = new ArrayList<>();
+        for (int facet = 0; facet < facetCount; facet++) {
+            if (facet != skip && filters[facet] != null) {
+                selected.add(filters[facet]);
+            }
+        }
+        if (selected.isEmpty()) {
+            return all;
+        }
+        selected.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = selected.get(0);
+        for (int i = 1; i < selected.size() && !result.isEmpty(); i++) {
+            result = RoaringBitmap.and(result, selected.get(i));
+        }
+        return result;
+    }
+
+    // Ids are never negative, so the bitmap's unsigned order is plain ascending order
+    private static int[] valuesAfter(RoaringBitmap bitmap, int afterId, int limit) {
+        if (afterId == Integer.MAX_VALUE || limit < 1) {
+            return new int[0];
+        }
+        int[] values = new int[Math.min(limit, bitmap.getCardinality())];
+        PeekableIntIterator ids = bitmap.getIntIterator();
+        ids.advanceIfNeeded(afterId + 1);
+        int count = 0;
+        while (count < values.length && ids.hasNext()) {
+            values[count++] = ids.next();
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private void unindex(int id) {
+        String[] previous = byId.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int facet = 0; facet < facetCount; facet++) {
+            if (previous[facet] != null) {
+                RoaringBitmap bitmap = facets.get(facet).get(previous[facet]);
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    facets.get(facet).remove(previous[facet]);
+                }
+            }
+        }
+        all.remove(id);
+    }
+
+    public static final class Result {
+        private final int total;
+        private final int[] ids;
+        private final List<Map<String, Integer>> counts;
+
+        public Result(int total, int[] ids, List<Map<String, Integer>> counts) {
+            this.total = total;
+            this.ids = ids;
+            this.counts = counts;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int[] getIds() {
+            return ids;
+        }
+
+        // Per facet, in facet order: value -> number of matches with that value
+        public List<Map<String, Integer>> getCounts() {
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.greencode.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Points kept in a skip list ordered by their Z-order (Morton) code, so nearby points sit close
+ * together in key order. A box query is decomposed into a handful of grid cells, each of which
+ * is one contiguous key range, and only those ranges are scanned: lookups cost O(log n) plus the
+ * points actually inspected. Reads are lock-free; writes are serialized.
+ */
+public class GeoIndex {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final int BITS = 26;
+    private static final long MAX_CELL = (1L << BITS) - 1;
+    // Coarsen the grid until a box is covered by at most this many cells
+    private static final int MAX_CELLS_PER_QUERY = 16;
+
+    private static final Comparator<Entry> KEY_ORDER =
+        Comparator.comparingLong((Entry e) -> e.code).thenComparingLong(e -> e.id);
+
+    // Bounded top-k: the farthest kept hit sits at the head and is evicted first
+    private static final Comparator<Hit> FARTHEST_FIRST =
+        Comparator.comparingDouble(Hit::getDistanceMeters).reversed();
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(KEY_ORDER);
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    public synchronized void put(long id, double latitude, double longitude) {
+        checkCoordinates(latitude, longitude);
+        Entry entry = new Entry(id, latitude, longitude);
+        Entry previous = byId.put(id, entry);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.add(entry);
+    }
+
+    public synchronized void remove(long id) {
+        Entry previous = byId.remove(id);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Points within {@code radiusMeters} of the given point, nearest first, at most {@code limit}.
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusMeters, int limit) {
+        checkCoordinates(latitude, longitude);
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        double minLat = latitude - Math.toDegrees(angular);
+        double maxLat = latitude + Math.toDegrees(angular);
+        double minLon;
+        double maxLon;
+        double lonSpan = Math.sin(angular) / Math.cos(Math.toRadians(latitude));
+        if (minLat <= -90 || maxLat >= 90 || angular >= Math.PI / 2 || lonSpan >= 1) {
+            // The circle reaches a pole or wraps the globe: every longitude is a candidate
+            minLat = Math.max(minLat, -90);
+            maxLat = Math.min(maxLat, 90);
+            minLon = -180;
+            maxLon = 180;
+        } else {
+            double deltaLon = Math.toDegrees(Math.asin(lonSpan));
+            minLon = wrapLongitude(longitude - deltaLon);
+            maxLon = wrapLongitude(longitude + deltaLon);
+        }
+
+        PriorityQueue<Hit> nearest = new PriorityQueue<>(FARTHEST_FIRST);
+        scanBox(minLat, minLon, maxLat, maxLon, entry -> {
+            double distance = distanceMeters(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusMeters) {
+                offer(nearest, new Hit(entry.id, entry.latitude, entry.longitude, distance), limit);
+            }
+        });
+        return drain(nearest);
+    }
+
+    /**
+     * Points inside the box, ordered by distance from the reference point, at most {@code limit}.
+     * A box whose minLongitude is greater than its maxLongitude crosses the antimeridian.
+     */
+    public List<Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                               double referenceLatitude, double referenceLongitude, int limit) {
+        checkCoordinates(minLatitude, minLongitude);
+        checkCoordinates(maxLatitude, maxLongitude);
+        checkCoordinates(referenceLatitude, referenceLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("minLatitude must not be greater than maxLatitude");
+        }
+
+        PriorityQueue<Hit> nearest = new PriorityQueue<>(FARTHEST_FIRST);
+        scanBox(minLatitude, minLongitude, maxLatitude, maxLongitude, entry -> offer(nearest,
+            new Hit(entry.id, entry.latitude, entry.longitude,
+                distanceMeters(referenceLatitude, referenceLongitude, entry.latitude, entry.longitude)),
+            limit));
+        return drain(nearest);
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void scanBox(double minLat, double minLon, double maxLat, double maxLon, Consumer<Entry> visitor) {
+        if (minLon > maxLon) {
+            scanBox(minLat, minLon, maxLat, 180, visitor);
+            scanBox(minLat, -180, maxLat, maxLon, visitor);
+            return;
+        }
+        long x0 = quantizeLongitude(minLon);
+        long x1 = quantizeLongitude(maxLon);
+        long y0 = quantizeLatitude(minLat);
+        long y1 = quantizeLatitude(maxLat);
+
+        int shift = 0;
+        while (((x1 >> shift) - (x0 >> shift) + 1) * ((y1 >> shift) - (y0 >> shift) + 1) > MAX_CELLS_PER_QUERY) {
+            shift++;
+        }
+
+        // Each cell at this level is one contiguous run of Morton codes; merge adjacent runs
+        List<long[]> ranges = new ArrayList<>();
+        for (long cy = y0 >> shift; cy <= y1 >> shift; cy++) {
+            for (long cx = x0 >> shift; cx <= x1 >> shift; cx++) {
+                long low = morton(cx << shift, cy << shift);
+                ranges.add(new long[] {low, low | ((1L << (2 * shift)) - 1)});
+            }
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+
+        for (long[] range : merged) {
+            for (Entry entry : entries.subSet(Entry.bound(range[0], Long.MIN_VALUE), true,
+                                              Entry.bound(range[1], Long.MAX_VALUE), true)) {
+                if (entry.latitude >= minLat && entry.latitude <= maxLat
+                        && entry.longitude >= minLon && entry.longitude <= maxLon) {
+                    visitor.accept(entry);
+                }
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> nearest, Hit hit, int limit) {
+        if (nearest.size() < limit) {
+            nearest.add(hit);
+        } else if (hit.getDistanceMeters() < nearest.peek().getDistanceMeters()) {
+            nearest.poll();
+            nearest.add(hit);
+        }
+    }
+
+    private static List<Hit> drain(PriorityQueue<Hit> nearest) {
+        List<Hit> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceMeters));
+        return hits;
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+
+    private static long quantizeLatitude(double latitude) {
+        return Math.min(MAX_CELL, (long) ((latitude + 90) / 180 * (1L << BITS)));
+    }
+
+    private static long quantizeLongitude(double longitude) {
+        return Math.min(MAX_CELL, (long) ((longitude + 180) / 360 * (1L << BITS)));
+    }
+
+    static long morton(long x, long y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    // Moves bit i of the input to bit 2i
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final double latitude;
+        private final double longitude;
+        private final double distanceMeters;
+
+        public Hit(long id, double latitude, double longitude, double distanceMeters) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distanceMeters = distanceMeters;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+    }
+
+    private static final class Entry {
+        final long code;
+        final long id;
+        final double latitude;
+        final double longitude;
+
+        Entry(long id, double latitude, double longitude) {
+            this(morton(quantizeLongitude(longitude), quantizeLatitude(latitude)), id, latitude, longitude);
+        }
+
+        private Entry(long code, long id, double latitude, double longitude) {
+            this.code = code;
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        static Entry bound(long code, long id) {
+            return new Entry(code, id, 0, 0);
+        }
+    }
+}
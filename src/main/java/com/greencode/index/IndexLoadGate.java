@@ -0,0 +1,69 @@
+package com.greencode.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders a startup load against live change events for an in-memory index. The load reads a
+ * snapshot that may or may not include a write committed while it runs, so applying that write's
+ * event straight away could be undone by an older row the load puts afterwards. Until the load
+ * has finished, changes are queued instead, then replayed in arrival order; changes must
+ * therefore be idempotent (put or remove the entry as it is now), which replaying over a
+ * snapshot that already saw them requires anyway.
+ *
+ * The in-memory indexes built this way (the project geo, cluster, leaderboard, timeline and facet
+ * indexes and the user typeahead) are node-local: each applies the writes made through its own
+ * node and sees writes from other nodes only on its next startup load. Deployments with several
+ * nodes get eventually stale indexes on every node but the writer.
+ */
+public class IndexLoadGate {
+
+    private final Object lock = new Object();
+
+    // Changes waiting for the load; null once it has finished
+    private List<Runnable> pending = new ArrayList<>();
+
+    /**
+     * Applies the change now, or queues it if the load has not finished yet.
+     */
+    public void apply(Runnable change) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    /**
+     * Runs the load, then every change queued before or during it. Changes arriving during the
+     * replay are queued and replayed too, so none overtakes an earlier one.
+     */
+    public void load(Runnable load) {
+        synchronized (lock) {
+            if (pending == null) {
+                throw new IllegalStateException("Already loaded");
+            }
+        }
+        load.run();
+        while (true) {
+            List<Runnable> queued;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    pending = null;
+                    return;
+                }
+                queued = pending;
+                pending = new ArrayList<>();
+            }
+            queued.forEach(Runnable::run);
+        }
+    }
+
+    public boolean isLoaded() {
+        synchronized (lock) {
+            return pending == null;
+        }
+    }
+}
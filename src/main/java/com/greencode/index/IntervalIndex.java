@@ -0,0 +1,236 @@
+package com.greencode.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Closed intervals [start, end] kept in a treap ordered by (start, id). Every node also records
+ * the largest end in its subtree, so an overlap query skips any subtree that ends before the
+ * window and stops at the first start after it. Results come out in start order, and a query can
+ * resume after the last (start, id) it returned, which lets callers page through large windows.
+ * Like {@link ClusterIndex}, intervals carry a small integer group for filtering. Readers share
+ * a lock; writers take it exclusively.
+ */
+public class IntervalIndex {
+
+    // End of an interval that has no end yet
+    public static final long OPEN = Long.MAX_VALUE;
+
+    private final Map<Long, Node> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+
+    public void put(long id, long start, long end, int group) {
+        if (end < start) {
+            throw new IllegalArgumentException("Interval end must not be before its start");
+        }
+        lock.writeLock().lock();
+        try {
+            Node previous = byId.remove(id);
+            if (previous != null) {
+                root = delete(root, previous.start, id);
+            }
+            Node node = new Node(id, start, end, group, ThreadLocalRandom.current().nextInt());
+            root = insert(root, node);
+            byId.put(id, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Node previous = byId.remove(id);
+            if (previous != null) {
+                root = delete(root, previous.start, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intervals overlapping [from, to] whose group passes the filter, in (start, id) order,
+     * starting strictly after ({@code afterStart}, {@code afterId}); at most {@code limit}.
+     * Pass {@code Long.MIN_VALUE} for both to start from the beginning.
+     */
+    public List<Interval> overlapping(long from, long to, IntPredicate groups,
+                                      long afterStart, long afterId, int limit) {
+        if (to < from) {
+            throw new IllegalArgumentException("Window end must not be before its start");
+        }
+        List<Interval> result = new ArrayList<>(Math.min(limit, 256));
+        lock.readLock().lock();
+        try {
+            collect(root, from, to, groups, afterStart, afterId, limit, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static void collect(Node node, long from, long to, IntPredicate groups,
+                                long afterStart, long afterId, int limit, List<Interval> result) {
+        if (node == null || node.maxEnd < from || result.size() >= limit) {
+            return;
+        }
+        boolean afterCursor = compare(node.start, node.id, afterStart, afterId) > 0;
+        // Everything left of a node at or before the cursor is before the cursor too
+        if (afterCursor) {
+            collect(node.left, from, to, groups, afterStart, afterId, limit, result);
+            if (result.size() >= limit) {
+                return;
+            }
+        }
+        if (node.start > to) {
+            return;
+        }
+        if (afterCursor && node.end >= from && groups.test(node.group)) {
+            result.add(new Interval(node.id, node.start, node.end));
+        }
+        collect(node.right, from, to, groups, afterStart, afterId, limit, result);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.id, node.start, node.id) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(start, id, node.start, node.id);
+        if (order < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (order > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Rotate the higher-priority child up and keep sinking the node being deleted
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, start, id);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, start, id);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(long start, long id, long otherStart, long otherId) {
+        int order = Long.compare(start, otherStart);
+        return order != 0 ? order : Long.compare(id, otherId);
+    }
+
+    public static final class Interval {
+        private final long id;
+        private final long start;
+        private final long end;
+
+        public Interval(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        // OPEN when the interval has no end
+        public long getEnd() {
+            return end;
+        }
+    }
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        final int group;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end, int group, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.group = group;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+}
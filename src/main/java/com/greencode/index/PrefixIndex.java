@@ -0,0 +1,513 @@
+package com.greencode.index;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix lookup from terms to entries. Most terms live in a sorted term table built from
+ * primitive arrays: all term characters in one char[], with int[] offsets into it and into a
+ * shared int[] of postings. A prefix query binary-searches the first matching term and walks
+ * forward, so it costs O(log terms + results) and never looks at non-matching terms. Results
+ * come in term order (an exact match before its longer completions), then insertion order.
+ *
+ * Writes append (term, slot) pairs to a delta and mark replaced entries dead. The pairs written
+ * since the last search are sorted when the next search or merge needs them. Once the writes since
+ * the last merge reach the threshold or a quarter of the table, whichever is larger, the delta is
+ * merged into the table in one linear pass that also drops dead postings. Readers share a lock;
+ * writers take it exclusively. Ids map to slots through an open-addressing table of primitives.
+ */
+public class PrefixIndex<T> {
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+
+    private final int compactionThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sorted term table: term i is termChars[termStart[i], termStart[i + 1]) and its
+    // postings (slots) are postings[postingStart[i], postingStart[i + 1])
+    private char[] termChars = new char[0];
+    private int[] termStart = {0};
+    private int[] postingStart = {0};
+    private int[] postings = new int[0];
+    private int termCount;
+
+    // (term, slot) pairs written since the last compaction: [0, deltaSorted) is ordered by term
+    // and then by slot, and the pairs after it are in write order
+    private String[] deltaTerms = new String[16];
+    private int[] deltaSlots = new int[16];
+    private int deltaSize;
+    private int deltaSorted;
+    private int deadSinceCompaction;
+
+    // Per slot: the owning id and its payload, which is null once the slot is dead
+    private long[] slotIds = new long[16];
+    private Object[] payloads = new Object[16];
+    private int slotCount;
+    private int liveSlots;
+
+    // Live id to slot, open addressing with linear probing; an empty bucket holds slot -1
+    private long[] bucketIds = new long[32];
+    private int[] bucketSlots = emptyBuckets(32);
+    private int bucketsUsed;
+
+    public PrefixIndex() {
+        this(DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public PrefixIndex(int compactionThreshold) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be at least 1");
+        }
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Indexes the payload under each non-empty term, replacing whatever the id had before.
+     */
+    public void put(long id, Collection<String> terms, T payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload must not be null");
+        }
+        lock.writeLock().lock();
+        try {
+            kill(id);
+            if (slotCount == slotIds.length) {
+                slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+                payloads = Arrays.copyOf(payloads, slotCount * 2);
+            }
+            int slot = slotCount++;
+            slotIds[slot] = id;
+            payloads[slot] = payload;
+            liveSlots++;
+            setSlot(id, slot);
+            for (String term : new LinkedHashSet<>(terms)) {
+                if (term == null || term.isEmpty()) {
+                    continue;
+                }
+                if (deltaSize == deltaTerms.length) {
+                    deltaTerms = Arrays.copyOf(deltaTerms, deltaSize * 2);
+                    deltaSlots = Arrays.copyOf(deltaSlots, deltaSize * 2);
+                }
+                deltaTerms[deltaSize] = term;
+                deltaSlots[deltaSize] = slot;
+                deltaSize++;
+            }
+            compactIfDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            kill(id);
+            compactIfDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveSlots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} distinct payloads with a term starting with the prefix.
+     */
+    public List<T> search(String prefix, int limit) {
+        List<T> results = new ArrayList<>(Math.min(limit, 64));
+        if (prefix.isEmpty() || limit < 1) {
+            return results;
+        }
+        lockSorted();
+        try {
+            SeenSlots seen = new SeenSlots();
+            int term = lowerBound(prefix);
+            int pair = deltaLowerBound(prefix);
+            while (results.size() < limit) {
+                boolean inTable = term < termCount && startsWith(term, prefix);
+                boolean inDelta = pair < deltaSize && deltaTerms[pair].startsWith(prefix);
+                if (!inTable && !inDelta) {
+                    break;
+                }
+                int order = !inTable ? 1 : !inDelta ? -1 : compare(term, deltaTerms[pair]);
+                if (order <= 0) {
+                    for (int p = postingStart[term]; p < postingStart[term + 1] && results.size() < limit; p++) {
+                        collect(postings[p], seen, results);
+                    }
+                    term++;
+                }
+                if (order >= 0) {
+                    String key = deltaTerms[pair];
+                    for (; pair < deltaSize && deltaTerms[pair].equals(key) && results.size() < limit; pair++) {
+                        collect(deltaSlots[pair], seen, results);
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the delta into the term table and drops dead postings. Runs on its own once enough
+     * writes have accumulated.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int slot, SeenSlots seen, List<T> results) {
+        Object payload = payloads[slot];
+        if (payload != null && seen.add(slot)) {
+            results.add((T) payload);
+        }
+    }
+
+    private void kill(long id) {
+        int slot = removeSlot(id);
+        if (slot >= 0) {
+            payloads[slot] = null;
+            liveSlots--;
+            deadSinceCompaction++;
+        }
+    }
+
+    private void compactIfDue() {
+        // Growing the trigger with the table keeps bulk loads linear rather than quadratic
+        if (deltaSize + deadSinceCompaction >= Math.max(compactionThreshold, postings.length / 4)) {
+            merge();
+        }
+    }
+
+    // Takes the read lock with the delta fully sorted, sorting it first under the write lock if needed
+    private void lockSorted() {
+        lock.readLock().lock();
+        if (deltaSorted == deltaSize) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            sortDelta();
+            // Downgrade, so no write can land between the sort and the search
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sorts the pairs written since the last sort and merges them, back to front, into the sorted
+     * run before them. Slots only grow between merges, so a stable sort by term also keeps pairs of
+     * the same term in slot order.
+     */
+    private void sortDelta() {
+        int unsorted = deltaSize - deltaSorted;
+        if (unsorted == 0) {
+            return;
+        }
+        int[] order = new int[unsorted];
+        for (int i = 0; i < unsorted; i++) {
+            order[i] = deltaSorted + i;
+        }
+        sortByTerm(order, new int[unsorted], 0, unsorted);
+        String[] terms = new String[unsorted];
+        int[] slots = new int[unsorted];
+        for (int i = 0; i < unsorted; i++) {
+            terms[i] = deltaTerms[order[i]];
+            slots[i] = deltaSlots[order[i]];
+        }
+        int run = deltaSorted - 1;
+        int out = deltaSize - 1;
+        for (int i = unsorted - 1; i >= 0; out--) {
+            if (run >= 0 && deltaTerms[run].compareTo(terms[i]) > 0) {
+                deltaTerms[out] = deltaTerms[run];
+                deltaSlots[out] = deltaSlots[run];
+                run--;
+            } else {
+                deltaTerms[out] = terms[i];
+                deltaSlots[out] = slots[i];
+                i--;
+            }
+        }
+        deltaSorted = deltaSize;
+    }
+
+    // Stable merge sort of delta positions by their term
+    private void sortByTerm(int[] order, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByTerm(order, scratch, from, mid);
+        sortByTerm(order, scratch, mid, to);
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            boolean takeLeft = left < mid
+                && (right == to || deltaTerms[scratch[left]].compareTo(deltaTerms[scratch[right]]) <= 0);
+            if (takeLeft) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private void merge() {
+        // Renumber slots densely once dead ones outnumber live ones; dead slots map to -1
+        int[] remap = null;
+        if (slotCount - liveSlots > liveSlots) {
+            remap = new int[slotCount];
+            long[] ids = new long[Math.max(16, liveSlots * 2)];
+            Object[] live = new Object[ids.length];
+            int next = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (payloads[slot] == null) {
+                    remap[slot] = -1;
+                    continue;
+                }
+                remap[slot] = next;
+                ids[next] = slotIds[slot];
+                live[next] = payloads[slot];
+                setSlot(slotIds[slot], next);
+                next++;
+            }
+            slotIds = ids;
+            payloads = live;
+            slotCount = next;
+        }
+
+        sortDelta();
+        int deltaChars = 0;
+        for (int pair = 0; pair < deltaSize; pair++) {
+            if (pair == 0 || !deltaTerms[pair].equals(deltaTerms[pair - 1])) {
+                deltaChars += deltaTerms[pair].length();
+            }
+        }
+        char[] newChars = new char[termChars.length + deltaChars];
+        int[] newTermStart = new int[termCount + deltaSize + 1];
+        int[] newPostingStart = new int[newTermStart.length];
+        int[] newPostings = new int[postings.length + deltaSize];
+        int terms = 0;
+        int chars = 0;
+        int count = 0;
+
+        int term = 0;
+        int pair = 0;
+        while (term < termCount || pair < deltaSize) {
+            int order = term >= termCount ? 1 : pair == deltaSize ? -1 : compare(term, deltaTerms[pair]);
+            String key = order >= 0 ? deltaTerms[pair] : null;
+            int firstPosting = count;
+            // Table postings precede delta postings for the same term, keeping slot order
+            if (order <= 0) {
+                for (int p = postingStart[term]; p < postingStart[term + 1]; p++) {
+                    count = keep(postings[p], remap, newPostings, count);
+                }
+            }
+            if (order >= 0) {
+                for (; pair < deltaSize && deltaTerms[pair].equals(key); pair++) {
+                    count = keep(deltaSlots[pair], remap, newPostings, count);
+                }
+            }
+            if (count > firstPosting) {
+                if (order <= 0) {
+                    int length = termStart[term + 1] - termStart[term];
+                    System.arraycopy(termChars, termStart[term], newChars, chars, length);
+                    chars += length;
+                } else {
+                    key.getChars(0, key.length(), newChars, chars);
+                    chars += key.length();
+                }
+                newPostingStart[terms] = firstPosting;
+                terms++;
+                newTermStart[terms] = chars;
+                newPostingStart[terms] = count;
+            }
+            if (order <= 0) {
+                term++;
+            }
+        }
+
+        termChars = Arrays.copyOf(newChars, chars);
+        termStart = Arrays.copyOf(newTermStart, terms + 1);
+        postingStart = Arrays.copyOf(newPostingStart, terms + 1);
+        postings = Arrays.copyOf(newPostings, count);
+        termCount = terms;
+        deltaTerms = new String[16];
+        deltaSlots = new int[16];
+        deltaSize = 0;
+        deltaSorted = 0;
+        deadSinceCompaction = 0;
+    }
+
+    // Copies a live posting (renumbered when slots are being compacted) and returns the new count
+    private int keep(int slot, int[] remap, int[] target, int count) {
+        int kept = remap != null ? remap[slot] : payloads[slot] != null ? slot : -1;
+        if (kept < 0) {
+            return count;
+        }
+        target[count] = kept;
+        return count + 1;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First delta pair whose term is not below the prefix
+    private int deltaLowerBound(String prefix) {
+        int low = 0;
+        int high = deltaSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (deltaTerms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int term, String other) {
+        int start = termStart[term];
+        int length = termStart[term + 1] - start;
+        int shared = Math.min(length, other.length());
+        for (int i = 0; i < shared; i++) {
+            int diff = termChars[start + i] - other.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - other.length();
+    }
+
+    private boolean startsWith(int term, String prefix) {
+        int start = termStart[term];
+        if (termStart[term + 1] - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (termChars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bucket(long id) {
+        int mask = bucketIds.length - 1;
+        int bucket = mix(id) & mask;
+        while (bucketSlots[bucket] >= 0 && bucketIds[bucket] != id) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    private void setSlot(long id, int slot) {
+        int bucket = bucket(id);
+        if (bucketSlots[bucket] < 0) {
+            bucketIds[bucket] = id;
+            bucketsUsed++;
+        }
+        bucketSlots[bucket] = slot;
+        if (bucketsUsed * 2 > bucketIds.length) {
+            long[] ids = bucketIds;
+            int[] slots = bucketSlots;
+            bucketIds = new long[ids.length * 2];
+            bucketSlots = emptyBuckets(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                if (slots[i] >= 0) {
+                    int moved = bucket(ids[i]);
+                    bucketIds[moved] = ids[i];
+                    bucketSlots[moved] = slots[i];
+                }
+            }
+        }
+    }
+
+    // Removes the id and returns its slot, or -1 if it had none
+    private int removeSlot(long id) {
+        int mask = bucketIds.length - 1;
+        int gap = bucket(id);
+        int slot = bucketSlots[gap];
+        if (slot < 0) {
+            return -1;
+        }
+        // Shift later entries of the probe run back so none is left behind an empty bucket
+        for (int bucket = (gap + 1) & mask; bucketSlots[bucket] >= 0; bucket = (bucket + 1) & mask) {
+            int home = mix(bucketIds[bucket]) & mask;
+            if (((bucket - home) & mask) >= ((bucket - gap) & mask)) {
+                bucketIds[gap] = bucketIds[bucket];
+                bucketSlots[gap] = bucketSlots[bucket];
+                gap = bucket;
+            }
+        }
+        bucketSlots[gap] = -1;
+        bucketsUsed--;
+        return slot;
+    }
+
+    private static int[] emptyBuckets(int size) {
+        int[] slots = new int[size];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private static int mix(long id) {
+        long hash = id * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // The slots already returned by one search, kept sorted; a search returns at most its limit
+    private static final class SeenSlots {
+        private int[] slots = new int[16];
+        private int size;
+
+        boolean add(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+            return true;
+        }
+    }
+}
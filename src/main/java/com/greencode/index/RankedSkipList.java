@@ -0,0 +1,223 @@
+package com.greencode.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skip list of ids ordered by score, highest first, ties broken by ascending id. Every forward
+ * link also records how many entries it skips, so the rank of an entry is the sum of the spans
+ * crossed while searching for it: put, remove and rank are O(log n), and the top k entries are
+ * the first k nodes of the bottom level. Readers share a lock; writers take it exclusively.
+ */
+public class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(0, Long.MAX_VALUE, MAX_LEVEL);
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+    private int size;
+
+    public void put(long id, long score) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(id);
+            if (previous != null) {
+                if (previous == score) {
+                    return;
+                }
+                delete(id, previous);
+            }
+            insert(id, score);
+            scores.put(id, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.remove(id);
+            if (previous != null) {
+                delete(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based position of the id, or 0 when it is not in the list.
+     */
+    public int rank(long id) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(id);
+            if (score == null) {
+                return 0;
+            }
+            int rank = 0;
+            Node node = head;
+            for (int i = level - 1; i >= 0; i--) {
+                // Advance while the next entry sorts at or before the one being ranked
+                while (node.forward[i] != null
+                        && !before(id, score, node.forward[i].id, node.forward[i].score)) {
+                    rank += node.span[i];
+                    node = node.forward[i];
+                }
+                if (node != head && node.id == id) {
+                    return rank;
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> top(int k) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.min(k, size));
+            Node node = head.forward[0];
+            while (node != null && entries.size() < k) {
+                entries.add(new Entry(node.id, node.score, entries.size() + 1));
+                node = node.forward[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long id, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.forward[i] != null && before(node.forward[i].id, node.forward[i].score, id, score)) {
+                rank[i] += node.span[i];
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node inserted = new Node(id, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.forward[i] = update[i].forward[i];
+            update[i].forward[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(long id, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.forward[i] != null && before(node.forward[i].id, node.forward[i].score, id, score)) {
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+        Node target = node.forward[0];
+        if (target == null || target.id != id) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].forward[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].forward[i] = target.forward[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.forward[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    // True when (id, score) sorts strictly before (otherId, otherScore)
+    private static boolean before(long id, long score, long otherId, long otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    public static final class Entry {
+        private final long id;
+        private final long score;
+        private final int rank;
+
+        public Entry(long id, long score, int rank) {
+            this.id = id;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+
+    private static final class Node {
+        final long id;
+        final long score;
+        final Node[] forward;
+        final int[] span;
+
+        Node(long id, long score, int levels) {
+            this.id = id;
+            this.score = score;
+            this.forward = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.greencode.index;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (Dunning and Ertl) for streaming quantile estimates. Values are buffered and
+ * periodically folded into at most about {@code compression} weighted centroids. Centroids are
+ * kept small near both tails, so extreme quantiles stay accurate while the middle of the
+ * distribution is summarized more coarsely. Digests built separately, for example on other
+ * nodes or for other groups, merge into one digest of the combined stream, and they serialize to
+ * a compact byte form for storage. All methods are thread-safe.
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Values not yet folded into the centroids
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int buffered;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Compression must be at least 10");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(2 * compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferMeans = new double[5 * capacity];
+        this.bufferWeights = new double[5 * capacity];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public synchronized void add(double value, double weight) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Value must be a finite number");
+        }
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value summarized by the other digest to this one.
+     */
+    public void merge(TDigest other) {
+        if (other == this) {
+            throw new IllegalArgumentException("A digest cannot be merged into itself");
+        }
+        double[][] snapshot = other.centroidSnapshot();
+        synchronized (this) {
+            double[] otherMeans = snapshot[0];
+            double[] otherWeights = snapshot[1];
+            for (int i = 0; i < otherMeans.length; i++) {
+                if (buffered == bufferMeans.length) {
+                    compress();
+                }
+                bufferMeans[buffered] = otherMeans[i];
+                bufferWeights[buffered] = otherWeights[i];
+                buffered++;
+            }
+            if (otherMeans.length > 0) {
+                min = Math.min(min, snapshot[2][0]);
+                max = Math.max(max, snapshot[2][1]);
+            }
+        }
+    }
+
+    public synchronized long count() {
+        compress();
+        return Math.round(totalWeight);
+    }
+
+    public synchronized double min() {
+        return centroids + buffered == 0 ? Double.NaN : min;
+    }
+
+    public synchronized double max() {
+        return centroids + buffered == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estimated value at quantile {@code q} (between 0 and 1), or NaN when the digest is empty.
+     */
+    public synchronized double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        // Each centroid's mean is taken to sit at the middle of its weight
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        double lastHalf = weights[centroids - 1] / 2;
+        double fraction = Math.min(1, (index - cumulative) / lastHalf);
+        return means[centroids - 1] + (max - means[centroids - 1]) * fraction;
+    }
+
+    public synchronized byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 + 4 + 16 + centroids * 16);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putDouble(compression);
+        buffer.putInt(centroids);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        for (int i = 0; i < centroids; i++) {
+            buffer.putDouble(means[i]);
+            buffer.putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported t-digest format version " + version);
+        }
+        TDigest digest = new TDigest(buffer.getDouble());
+        int count = buffer.getInt();
+        double storedMin = buffer.getDouble();
+        double storedMax = buffer.getDouble();
+        for (int i = 0; i < count; i++) {
+            double mean = buffer.getDouble();
+            double weight = buffer.getDouble();
+            digest.add(mean, weight);
+        }
+        if (count > 0) {
+            digest.min = storedMin;
+            digest.max = storedMax;
+        }
+        return digest;
+    }
+
+    // [means, weights, {min, max}], taken under this digest's lock only
+    private synchronized double[][] centroidSnapshot() {
+        compress();
+        return new double[][] {
+            Arrays.copyOf(means, centroids),
+            Arrays.copyOf(weights, centroids),
+            {min, max}
+        };
+    }
+
+    // Sorts the centroids and buffered values together and folds neighbours while they fit
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroids + buffered;
+        double[] allMeans = new double[n];
+        double[] allWeights = new double[n];
+        System.arraycopy(means, 0, allMeans, 0, centroids);
+        System.arraycopy(weights, 0, allWeights, 0, centroids);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double total = 0;
+        for (double weight : allWeights) {
+            total += weight;
+        }
+
+        int out = 0;
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        double weightBefore = 0;
+        double limit = total * quantileLimit(0, total);
+        for (int i = 1; i < n; i++) {
+            int next = order[i];
+            if (weightBefore + weight + allWeights[next] <= limit) {
+                weight += allWeights[next];
+                mean += (allMeans[next] - mean) * allWeights[next] / weight;
+            } else {
+                means[out] = mean;
+                weights[out] = weight;
+                out++;
+                weightBefore += weight;
+                limit = total * quantileLimit(weightBefore, total);
+                mean = allMeans[next];
+                weight = allWeights[next];
+            }
+        }
+        means[out] = mean;
+        weights[out] = weight;
+        centroids = out + 1;
+        totalWeight = total;
+    }
+
+    // Highest quantile a centroid starting at weightBefore may reach: one unit of the k1 scale
+    private double quantileLimit(double weightBefore, double total) {
+        double q = weightBefore / total;
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+}
@@ -0,0 +1,35 @@
+package com.greencode.repository;
+
+import com.greencode.entity.ProjectQuantileSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProjectQuantileSketchRepository
+        extends JpaRepository<ProjectQuantileSketch, ProjectQuantileSketch.RowKey> {
+
+    List<ProjectQuantileSketch> findByNodeId(String nodeId);
+
+    @Query("SELECT MAX(s.generation) FROM ProjectQuantileSketch s WHERE s.nodeId = :snapshot")
+    LocalDateTime findSnapshotGeneration(@Param("snapshot") String snapshot);
+
+    // Every node's creates on top of the given snapshot generation
+    @Query("SELECT s FROM ProjectQuantileSketch s WHERE s.nodeId <> :snapshot AND s.generation = :generation")
+    List<ProjectQuantileSketch> findDeltas(@Param("snapshot") String snapshot,
+                                           @Param("generation") LocalDateTime generation);
+
+    @Modifying
+    @Query("DELETE FROM ProjectQuantileSketch s WHERE s.nodeId = :nodeId")
+    int deleteByNode(@Param("nodeId") String nodeId);
+
+    // Deltas on an older snapshot are covered by the newer one
+    @Modifying
+    @Query("DELETE FROM ProjectQuantileSketch s WHERE s.nodeId <> :snapshot AND s.generation < :generation")
+    int deleteDeltasBefore(@Param("snapshot") String snapshot, @Param("generation") LocalDateTime generation);
+}
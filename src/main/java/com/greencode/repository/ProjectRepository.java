@@ -0,0 +1,124 @@
+package com.greencode.repository;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Project reads only see active rows: the entity carries an SQL restriction on is_active.
+ * Filtered listings are built in {@link ProjectRepositoryCustom}.
+ */
+@Repository
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
+
+    // Column-pruned projection for listings: no description, manager as a bare id (no join)
+    String DTO_SELECT = "SELECT new com.greencode.dto.ProjectDto(p.id, p.name, p.category, p.status, " +
+                        "p.startDate, p.endDate, p.budget, p.actualCost, p.location, p.coordinates, " +
+                        "p.latitude, p.longitude, p.impactScore, p.sustainabilityRating, p.manager.id, " +
+                        "p.teamSize, p.isPublic, p.createdAt, p.updatedAt) FROM Project p ";
+
+    @Query(DTO_SELECT + "WHERE p.id IN :ids")
+    List<ProjectDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The listing rows for ids picked by an in-memory index, in the index's order. Ids whose
+     * project was deleted after the index was read (its event not yet applied) are left out.
+     */
+    default List<ProjectDto> hydrate(List<Long> ids) {
+        return hydrate(ids, Function.identity(), (id, project) -> project);
+    }
+
+    /**
+     * Like {@link #hydrate(List)}, pairing each index hit that still has a row with that row.
+     */
+    default <H, R> List<R> hydrate(List<H> hits, Function<H, Long> id, BiFunction<H, ProjectDto, R> row) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProjectDto> projects = findDtosByIds(hits.stream().map(id).toList()).stream()
+            .collect(Collectors.toMap(ProjectDto::getId, Function.identity()));
+        List<R> result = new ArrayList<>(hits.size());
+        for (H hit : hits) {
+            ProjectDto project = projects.get(id.apply(hit));
+            if (project != null) {
+                result.add(row.apply(hit, project));
+            }
+        }
+        return result;
+    }
+
+    // Startup load of the spatial index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.latitude, p.longitude FROM Project p " +
+           "WHERE p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    Stream<Object[]> streamCoordinates();
+
+    // Startup load of the map clusters, which only show public projects
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.latitude, p.longitude, p.category, p.status FROM Project p " +
+           "WHERE p.isPublic = true AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    Stream<Object[]> streamPublicMapPoints();
+
+    // Startup load of the impact leaderboards, which only rank public projects
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.category, p.impactScore, p.sustainabilityRating FROM Project p " +
+           "WHERE p.isPublic = true AND p.impactScore IS NOT NULL")
+    Stream<Object[]> streamLeaderboardScores();
+
+    // Full-text index builds: [id, name, description, location, category, status, updated at]
+    String SEARCH_TEXT_SELECT = "SELECT p.id, p.name, p.description, p.location, p.category, p.status, " +
+                                "p.updatedAt FROM Project p ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SEARCH_TEXT_SELECT)
+    Stream<Object[]> streamSearchText();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SEARCH_TEXT_SELECT + "WHERE p.updatedAt >= :since")
+    Stream<Object[]> streamSearchTextUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Full-text catch-up of deletes; native because entity reads never see soft-deleted rows
+    @Query(value = "SELECT p.id FROM projects p WHERE p.is_active = false AND p.updated_at >= :since",
+           nativeQuery = true)
+    List<Long> findInactiveIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Startup load of the facet index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.category, p.status, p.sustainabilityRating, p.impactScore, p.isPublic, p.teamSize " +
+           "FROM Project p")
+    Stream<Object[]> streamFacetValues();
+
+    // Startup load of the timeline index: [id, start date, end date, category, status]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.startDate, p.endDate, p.category, p.status FROM Project p " +
+           "WHERE p.startDate IS NOT NULL")
+    Stream<Object[]> streamDateRanges();
+
+    // Rebuild of the percentile sketches: [category, status, budget, actual cost]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.category, p.status, p.budget, p.actualCost FROM Project p " +
+           "WHERE p.category IS NOT NULL AND p.status IS NOT NULL " +
+           "AND (p.budget IS NOT NULL OR p.actualCost IS NOT NULL)")
+    Stream<Object[]> streamMoneyFigures();
+
+    // Ground truth for rollup reconciliation: [category, status, count, budget sum, cost sum]
+    @Query("SELECT p.category, p.status, COUNT(p), COALESCE(SUM(p.budget), 0), COALESCE(SUM(p.actualCost), 0) " +
+           "FROM Project p GROUP BY p.category, p.status")
+    List<Object[]> summarizeByCategoryAndStatus();
+}
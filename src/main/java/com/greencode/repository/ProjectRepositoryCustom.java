@@ -0,0 +1,16 @@
+package com.greencode.repository;
+
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFilter;
+
+import java.util.List;
+
+public interface ProjectRepositoryCustom {
+
+    /**
+     * Up to {@code limit} projects matching the filter, ordered by (createdAt, id) and starting
+     * after {@code after} when given. No count query is issued.
+     */
+    List<ProjectDto> findPage(ProjectFilter filter, KeysetCursor after, int limit);
+}
@@ -0,0 +1,72 @@
+package com.greencode.repository;
+
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the listing query from only the criteria that are set. Each combination yields a
+ * distinct, stable JPQL string, so Hibernate's query plan cache and the database's prepared
+ * statement cache still get hits, and each plan can use the index matching its predicates.
+ */
+class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProjectDto> findPage(ProjectFilter filter, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(ProjectRepository.DTO_SELECT).append("WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (filter.getCategory() != null) {
+            jpql.append(" AND p.category = :category");
+            parameters.put("category", filter.getCategory());
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" AND p.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getIsPublic() != null) {
+            jpql.append(" AND p.isPublic = :isPublic");
+            parameters.put("isPublic", filter.getIsPublic());
+        }
+        if (filter.getManagerId() != null) {
+            jpql.append(" AND p.manager.id = :managerId");
+            parameters.put("managerId", filter.getManagerId());
+        }
+        if (filter.getStartFrom() != null) {
+            jpql.append(" AND p.startDate >= :startFrom");
+            parameters.put("startFrom", filter.getStartFrom());
+        }
+        if (filter.getStartTo() != null) {
+            jpql.append(" AND p.startDate <= :startTo");
+            parameters.put("startTo", filter.getStartTo());
+        }
+        if (filter.getMinImpact() != null) {
+            jpql.append(" AND p.impactScore >= :minImpact");
+            parameters.put("minImpact", filter.getMinImpact());
+        }
+        if (filter.getMaxImpact() != null) {
+            jpql.append(" AND p.impactScore <= :maxImpact");
+            parameters.put("maxImpact", filter.getMaxImpact());
+        }
+        if (after != null) {
+            jpql.append(" AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id))");
+            parameters.put("createdAt", after.getCreatedAt());
+            parameters.put("id", after.getId());
+        }
+        jpql.append(" ORDER BY p.createdAt ASC, p.id ASC");
+
+        TypedQuery<ProjectDto> query = entityManager.createQuery(jpql.toString(), ProjectDto.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.greencode.repository;
+
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProjectRollupRepository extends JpaRepository<ProjectRollup, ProjectRollup.Key> {
+
+    // Relative update, so concurrent writers never overwrite each other's deltas
+    @Modifying
+    @Query("UPDATE ProjectRollup r SET r.projectCount = r.projectCount + :countDelta, " +
+           "r.totalBudget = r.totalBudget + :budgetDelta, " +
+           "r.totalActualCost = r.totalActualCost + :costDelta, r.updatedAt = :now, r.version = r.version + 1 " +
+           "WHERE r.category = :category AND r.status = :status")
+    int applyDelta(@Param("category") Project.ProjectCategory category,
+                   @Param("status") Project.ProjectStatus status,
+                   @Param("countDelta") long countDelta,
+                   @Param("budgetDelta") BigDecimal budgetDelta,
+                   @Param("costDelta") BigDecimal costDelta,
+                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT r FROM ProjectRollup r ORDER BY r.category, r.status")
+    List<ProjectRollup> findAllOrdered();
+}
@@ -1,33 +1,113 @@
 package com.greencode.repository;
 
+import com.greencode.dto.UserDto;
 import com.greencode.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * User reads only see active rows: the entity carries an SQL restriction on is_active.
+ * Queries that must also see soft-deleted rows (uniqueness of usernames and emails,
+ * which soft-deleted users keep reserved) are native.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    List<User> findByIsActiveTrue();
+    // Column-pruned projection for read endpoints: no password column, no managed entities
+    String DTO_SELECT = "SELECT new com.greencode.dto.UserDto(u.id, u.username, u.email, u.firstName, " +
+                        "u.lastName, u.role, u.isEnabled, u.createdAt, u.updatedAt) FROM User u ";
 
     Optional<User> findByUsername(String username);
+
     List<User> findByIsActiveTrue();
     
     Optional<User> findByEmail(String email);
     
-    Boolean existsByUsername(String username);
+    @Query(value = "SELECT COUNT(*) > 0 FROM users WHERE username = :username", nativeQuery = true)
+    Boolean existsByUsername(@Param("username") String username);
     
-    Boolean existsByEmail(String email);
+    @Query(value = "SELECT COUNT(*) > 0 FROM users WHERE email = :email", nativeQuery = true)
+    Boolean existsByEmail(@Param("email") String email);
     
     @Query("SELECT u FROM User u WHERE u.username = :username OR u.email = :email")
     Optional<User> findByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
-    
-    @Query("SELECT COUNT(u) > 0 FROM User u WHERE (u.username = :username OR u.email = :email) AND u.id != :excludeId")
-    Boolean existsByUsernameOrEmailExcludingId(@Param("username") String username, 
-                                              @Param("email") String email, 
-                                              @Param("excludeId") Long excludeId);
+
+    @Query(DTO_SELECT + "WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE u.username = :username")
+    Optional<UserDto> findDtoByUsername(@Param("username") String username);
+
+    @Query(DTO_SELECT + "WHERE u.email = :email")
+    Optional<UserDto> findDtoByEmail(@Param("email") String email);
+
+    // Keyset pagination on (createdAt, id); a List return type means no count query is issued
+    @Query(DTO_SELECT + "ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserDto> findFirstPage(Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id) " +
+           "ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserDto> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.isActive = true ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserDto> findActiveFirstPage(Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.isActive = true " +
+           "AND (u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id)) " +
+           "ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserDto> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // Cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(DTO_SELECT + "ORDER BY u.id ASC")
+    Stream<UserDto> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT username, email FROM users", nativeQuery = true)
+    Stream<Object[]> streamAllUsernamesAndEmails();
+
+    @Query(value = "SELECT username, email FROM users WHERE username IN (:usernames) OR email IN (:emails)",
+           nativeQuery = true)
+    List<Object[]> findUsernamesAndEmailsIn(@Param("usernames") Collection<String> usernames,
+                                            @Param("emails") Collection<String> emails);
+
+    // Purge/archival of long-inactive users; native because entity reads never see inactive rows
+    @Query(value = "SELECT u.id FROM users u WHERE u.is_active = false " +
+                   "AND COALESCE(u.updated_at, u.created_at) < :cutoff AND u.id > :afterId " +
+                   "AND NOT EXISTS (SELECT 1 FROM projects p WHERE p.manager_id = u.id) " +
+                   "ORDER BY u.id LIMIT :limit", nativeQuery = true)
+    List<Long> findPurgeCandidates(@Param("cutoff") LocalDateTime cutoff,
+                                   @Param("afterId") Long afterId,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO users_archive (id, username, email, first_name, last_name, role, " +
+                   "created_at, updated_at, archived_at) " +
+                   "SELECT id, username, email, first_name, last_name, role, created_at, updated_at, :archivedAt " +
+                   "FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int archiveByIds(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,320 @@
+package com.greencode.repository.sharding;
+
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import com.greencode.exception.DuplicateUserException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Users spread over several databases. A user's row lives on the shard chosen by hashing its
+ * id; a small global index (username, email, id, shard) on a separate database answers
+ * username/email lookups and enforces their uniqueness across shards. Listings query every
+ * shard in parallel and merge the sorted results on (createdAt, id), so keyset cursors work
+ * exactly as they do against a single table.
+ *
+ * Everything that reads users goes through here while sharding is enabled: UserService, the
+ * export, and the startup loads of the availability filters and the typeahead. Two features
+ * depend on users living next to projects and are unavailable: the purge job, which archives
+ * into the primary database and checks project managers there, and assigning project managers,
+ * whose foreign key points at the primary users table.
+ */
+public class ShardedUserRepository implements Closeable {
+
+    private static final String USER_COLUMNS =
+        "id, username, email, first_name, last_name, role, is_enabled, created_at, updated_at";
+
+    private static final Comparator<UserDto> KEYSET_ORDER =
+        Comparator.comparing(UserDto::getCreatedAt).thenComparing(UserDto::getId);
+
+    private static final RowMapper<UserDto> USER_DTO = (rs, rowNum) -> new UserDto(
+        rs.getLong("id"),
+        rs.getString("username"),
+        rs.getString("email"),
+        rs.getString("first_name"),
+        rs.getString("last_name"),
+        rs.getString("role") != null ? User.UserRole.valueOf(rs.getString("role")) : null,
+        rs.getObject("is_enabled", Boolean.class),
+        rs.getObject("created_at", LocalDateTime.class),
+        rs.getObject("updated_at", LocalDateTime.class));
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final JdbcTemplate index;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final ExecutorService scatterExecutor;
+    private final List<Timer> shardTimers = new ArrayList<>();
+
+    public ShardedUserRepository(List<DataSource> shardDataSources, DataSource indexDataSource,
+                                 TimeOrderedIdGenerator idGenerator, ExecutorService scatterExecutor,
+                                 MeterRegistry meterRegistry) {
+        if (shardDataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (int i = 0; i < shardDataSources.size(); i++) {
+            shards.add(new JdbcTemplate(shardDataSources.get(i)));
+            shardTimers.add(Timer.builder("greencode.users.shard.latency")
+                .description("Latency of queries against one users shard")
+                .tag("shard", String.valueOf(i))
+                .register(meterRegistry));
+        }
+        this.index = new JdbcTemplate(indexDataSource);
+        dataSources.addAll(shardDataSources);
+        dataSources.add(indexDataSource);
+        this.idGenerator = idGenerator;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    /**
+     * Creates the shard and index tables when they do not exist yet.
+     */
+    public void initializeSchema() {
+        index.execute("CREATE TABLE IF NOT EXISTS user_index (" +
+            "user_id BIGINT PRIMARY KEY, " +
+            "username VARCHAR(50) NOT NULL CONSTRAINT uk_user_index_username UNIQUE, " +
+            "email VARCHAR(100) NOT NULL CONSTRAINT uk_user_index_email UNIQUE, " +
+            "shard INT NOT NULL)");
+        for (JdbcTemplate shard : shards) {
+            shard.execute("CREATE TABLE IF NOT EXISTS users (" +
+                "id BIGINT PRIMARY KEY, " +
+                "username VARCHAR(50) NOT NULL, " +
+                "email VARCHAR(100) NOT NULL, " +
+                "password VARCHAR(120) NOT NULL, " +
+                "first_name VARCHAR(100), " +
+                "last_name VARCHAR(100), " +
+                "role VARCHAR(20), " +
+                "is_enabled BOOLEAN, " +
+                "is_active BOOLEAN NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL, " +
+                "updated_at TIMESTAMP)");
+            shard.execute("CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id)");
+        }
+    }
+
+    public int shardFor(long id) {
+        // Mix first: time-ordered ids carry the sequence in their low bits
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) shards.size());
+    }
+
+    /**
+     * Inserts a user whose password is already hashed. The global index row is written first,
+     * so a username or email taken on any shard is rejected before the shard is touched.
+     */
+    public UserDto insert(User user) {
+        long id = idGenerator.next();
+        int shard = shardFor(id);
+        try {
+            index.update("INSERT INTO user_index (user_id, username, email, shard) VALUES (?, ?, ?, ?)",
+                id, user.getUsername(), user.getEmail(), shard);
+        } catch (DuplicateKeyException e) {
+            throw duplicate(user.getUsername(), id);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            timed(shard, () -> shards.get(shard).update(
+                "INSERT INTO users (" + USER_COLUMNS + ", password, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)",
+                id, user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getRole() != null ? user.getRole().name() : null, user.getIsEnabled(), now, now,
+                user.getPassword()));
+        } catch (RuntimeException e) {
+            // Compensate so the username/email do not stay reserved by a row that never landed
+            index.update("DELETE FROM user_index WHERE user_id = ?", id);
+            throw e;
+        }
+        return new UserDto(id, user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(),
+            user.getRole(), user.getIsEnabled(), now, now);
+    }
+
+    public Optional<UserDto> findDtoById(long id) {
+        int shard = shardFor(id);
+        List<UserDto> rows = timed(shard, () -> shards.get(shard).query(
+            "SELECT " + USER_COLUMNS + " FROM users WHERE id = ? AND is_active = TRUE", USER_DTO, id));
+        return rows.stream().findFirst();
+    }
+
+    public Optional<UserDto> findDtoByUsername(String username) {
+        return findViaIndex("SELECT user_id FROM user_index WHERE username = ?", username);
+    }
+
+    public Optional<UserDto> findDtoByEmail(String email) {
+        return findViaIndex("SELECT user_id FROM user_index WHERE email = ?", email);
+    }
+
+    /**
+     * Replaces the user's profile fields, and its password when {@code passwordHash} is not null.
+     * The index row moves first, so a username or email taken by another user is rejected
+     * before the shard row changes. Empty when there is no active user with this id.
+     */
+    public Optional<UserDto> update(long id, User user, String passwordHash) {
+        Optional<UserDto> current = findDtoById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            index.update("UPDATE user_index SET username = ?, email = ? WHERE user_id = ?",
+                user.getUsername(), user.getEmail(), id);
+        } catch (DuplicateKeyException e) {
+            throw duplicate(user.getUsername(), id);
+        }
+
+        int shard = shardFor(id);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = timed(shard, () -> shards.get(shard).update(
+            "UPDATE users SET username = ?, email = ?, first_name = ?, last_name = ?, role = ?, is_enabled = ?, " +
+            "updated_at = ?, password = COALESCE(?, password) WHERE id = ? AND is_active = TRUE",
+            user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(),
+            user.getRole() != null ? user.getRole().name() : null, user.getIsEnabled(), now, passwordHash, id));
+        if (updated == 0) {
+            // Deleted in the meantime: give the index back the names the row still holds
+            index.update("UPDATE user_index SET username = ?, email = ? WHERE user_id = ?",
+                current.get().getUsername(), current.get().getEmail(), id);
+            return Optional.empty();
+        }
+        return Optional.of(new UserDto(id, user.getUsername(), user.getEmail(), user.getFirstName(),
+            user.getLastName(), user.getRole(), user.getIsEnabled(), current.get().getCreatedAt(), now));
+    }
+
+    // Soft-deleted users keep their index rows, so their usernames and emails stay reserved
+    public boolean existsByUsername(String username) {
+        return Boolean.TRUE.equals(index.queryForObject(
+            "SELECT COUNT(*) > 0 FROM user_index WHERE username = ?", Boolean.class, username));
+    }
+
+    public boolean existsByEmail(String email) {
+        return Boolean.TRUE.equals(index.queryForObject(
+            "SELECT COUNT(*) > 0 FROM user_index WHERE email = ?", Boolean.class, email));
+    }
+
+    public boolean softDelete(long id) {
+        int shard = shardFor(id);
+        return timed(shard, () -> shards.get(shard).update(
+            "UPDATE users SET is_active = FALSE, updated_at = ? WHERE id = ? AND is_active = TRUE",
+            LocalDateTime.now(), id)) > 0;
+    }
+
+    /**
+     * One keyset page across all shards. Each shard returns at most {@code limit} rows after the
+     * cursor; merging those sorted runs yields exactly the rows a single table would return.
+     */
+    public List<UserDto> findPage(KeysetCursor after, int limit, boolean activeOnly) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(USER_COLUMNS).append(" FROM users WHERE 1 = 1");
+        if (activeOnly) {
+            sql.append(" AND is_active = TRUE");
+        }
+        Object[] args;
+        if (after != null) {
+            sql.append(" AND (created_at > ? OR (created_at = ? AND id > ?))");
+            args = new Object[] {after.getCreatedAt(), after.getCreatedAt(), after.getId(), limit};
+        } else {
+            args = new Object[] {limit};
+        }
+        sql.append(" ORDER BY created_at ASC, id ASC LIMIT ?");
+        String query = sql.toString();
+
+        List<CompletableFuture<List<UserDto>>> parts = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            parts.add(CompletableFuture.supplyAsync(
+                () -> timed(shard, () -> shards.get(shard).query(query, USER_DTO, args)), scatterExecutor));
+        }
+        List<List<UserDto>> runs = new ArrayList<>();
+        for (CompletableFuture<List<UserDto>> part : parts) {
+            runs.add(part.join());
+        }
+        return merge(runs, limit);
+    }
+
+    /**
+     * Every active user in (createdAt, id) order, read one merged page at a time as the stream
+     * is consumed.
+     */
+    public Stream<UserDto> streamActive(int pageSize) {
+        return Stream.iterate(findPage(null, pageSize, true), page -> !page.isEmpty(),
+                page -> page.size() < pageSize ? List.<UserDto>of() : findPage(after(page), pageSize, true))
+            .flatMap(List::stream);
+    }
+
+    // Every username and email ever taken, including those of soft-deleted users: [username, email]
+    public Stream<Object[]> streamUsernamesAndEmails() {
+        return index.queryForStream("SELECT username, email FROM user_index",
+            (rs, rowNum) -> new Object[] {rs.getString("username"), rs.getString("email")});
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Which of the two unique index columns the write collided on, ignoring the user's own row
+    private DuplicateUserException duplicate(String username, long id) {
+        if (Boolean.TRUE.equals(index.queryForObject(
+                "SELECT COUNT(*) > 0 FROM user_index WHERE username = ? AND user_id <> ?", Boolean.class,
+                username, id))) {
+            return new DuplicateUserException("username", "Username already exists");
+        }
+        return new DuplicateUserException("email", "Email already exists");
+    }
+
+    private static KeysetCursor after(List<UserDto> page) {
+        UserDto last = page.get(page.size() - 1);
+        return new KeysetCursor(last.getCreatedAt(), last.getId());
+    }
+
+    private Optional<UserDto> findViaIndex(String sql, String key) {
+        List<Long> ids = index.queryForList(sql, Long.class, key);
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        return findDtoById(ids.get(0));
+    }
+
+    // k-way merge of per-shard runs that are each already sorted by (createdAt, id)
+    private static List<UserDto> merge(List<List<UserDto>> runs, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+            (a, b) -> KEYSET_ORDER.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).isEmpty()) {
+                heads.add(new int[] {run, 0});
+            }
+        }
+        List<UserDto> merged = new ArrayList<>(limit);
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<UserDto> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (head[1] + 1 < run.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private <T> T timed(int shard, Supplier<T> query) {
+        return shardTimers.get(shard).record(query);
+    }
+}
@@ -0,0 +1,44 @@
+package com.greencode.repository.sharding;
+
+/**
+ * 64-bit ids that sort by creation time without a database round trip: 41 bits of
+ * milliseconds since 2024-01-01, 10 bits of node id and a 12-bit per-millisecond sequence.
+ */
+public class TimeOrderedIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_BITS)) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.nodeId = nodeId;
+    }
+
+    public synchronized long next() {
+        long now = System.currentTimeMillis();
+        if (now < lastMillis) {
+            // Clock moved backwards; keep issuing ids from the last timestamp seen
+            now = lastMillis;
+        }
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                while (now <= lastMillis) {
+                    now = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
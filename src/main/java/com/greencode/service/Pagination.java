@@ -0,0 +1,62 @@
+package com.greencode.service;
+
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page-size limits and keyset page assembly shared by the user and project listings. Queries
+ * fetch one row more than the page size; {@link #toPage} uses that extra row to decide whether
+ * there is a next page, so no count query is ever needed.
+ */
+@Component
+public class Pagination {
+
+    @Value("${greencode.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${greencode.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * The requested size capped at the maximum, or the default when none was requested.
+     */
+    public int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * A (createdAt, id) cursor, or null for the first page.
+     */
+    public static KeysetCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after.getCreatedAt() == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return after;
+    }
+
+    /**
+     * Trims rows fetched with a limit of {@code pageSize + 1} to a page whose cursor points at
+     * its last row.
+     */
+    public static <T> CursorPage<T> toPage(List<T> rows, int pageSize, Function<T, KeysetCursor> position) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? position.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, pageSize, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,136 @@
+package com.greencode.service;
+
+import com.greencode.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing on a fixed-size pool with a bounded queue so a burst of signups can use
+ * at most the configured number of cores. When the queue is full the caller gets a
+ * {@link CapacityExceededException} immediately instead of waiting behind the backlog.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means half of the available cores
+    @Value("${greencode.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${greencode.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${greencode.password-hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer waitTimer;
+    private Timer hashTimer;
+    private Counter rejections;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("greencode.password_hashing.queue_depth", executor, e -> e.getQueue().size())
+            .description("Hash requests waiting for a hashing thread")
+            .register(meterRegistry);
+        Gauge.builder("greencode.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing threads currently busy")
+            .register(meterRegistry);
+        waitTimer = Timer.builder("greencode.password_hashing.wait")
+            .description("Time a hash request spent queued before a thread picked it up")
+            .register(meterRegistry);
+        hashTimer = Timer.builder("greencode.password_hashing.latency")
+            .description("Time spent computing a password hash")
+            .register(meterRegistry);
+        rejections = Counter.builder("greencode.password_hashing.rejected")
+            .description("Hash requests rejected because the queue was full")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(rawPassword));
+    }
+
+    /**
+     * Hashes a batch without letting it monopolise the queue: at most one task per hashing
+     * thread is in flight for this caller at any time.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int window = executor.getMaximumPoolSize();
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<Future<String>> inFlight = new ArrayList<>(window);
+            for (String rawPassword : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))) {
+                inFlight.add(submit(rawPassword));
+            }
+            for (Future<String> hash : inFlight) {
+                hashes.add(await(hash));
+            }
+        }
+        return hashes;
+    }
+
+    private Future<String> submit(String rawPassword) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(() -> passwordEncoder.encode(rawPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new CapacityExceededException("Too many concurrent password operations, please retry",
+                retryAfterSeconds);
+        }
+    }
+
+    private String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+}
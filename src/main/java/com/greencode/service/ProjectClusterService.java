@@ -0,0 +1,135 @@
+package com.greencode.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.ClusterIndex;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Map marker clusters for public projects, served per XYZ tile. Each category and status
+ * combination is its own group in the {@link ClusterIndex}, so any category/status filter is
+ * answered by merging groups. Rendered tiles are cached; a project write invalidates only the
+ * tiles containing its old and new position, one per zoom level. The index is node-local, see
+ * {@link IndexLoadGate}.
+ */
+@Service
+public class ProjectClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectClusterService.class);
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greencode.projects.clusters.max-zoom:16}")
+    private int maxZoom;
+
+    @Value("${greencode.projects.clusters.tile-cache.maximum-size:20000}")
+    private long tileCacheMaximumSize;
+
+    private ClusterIndex index;
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    // Tile -> rendered features per filter, so invalidating a tile drops every filtered variant
+    private Cache<Long, Map<String, List<ClusterIndex.Feature>>> tiles;
+
+    @PostConstruct
+    void init() {
+        index = new ClusterIndex(maxZoom, ProjectGroups.COUNT);
+        tiles = Caffeine.newBuilder()
+            .maximumSize(tileCacheMaximumSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tiles, "projects.cluster_tiles");
+        Gauge.builder("greencode.projects.clusters.points", index, ClusterIndex::size)
+            .description("Public projects held in the map cluster index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        loadGate.load(() -> {
+            try (Stream<Object[]> rows = projectRepository.streamPublicMapPoints()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    index.put((Long) row[0], (Double) row[1], (Double) row[2],
+                        ProjectGroups.of((Project.ProjectCategory) row[3], (Project.ProjectStatus) row[4]));
+                }
+            }
+            tiles.invalidateAll();
+        });
+        log.info("Loaded {} public projects into the map cluster index", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        loadGate.apply(() -> apply(event));
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        ProjectDto before = event.getBefore();
+        ProjectDto after = event.getAfter();
+        if (isMapped(before)) {
+            index.remove(before.getId());
+            invalidateTiles(before);
+        }
+        if (isMapped(after)) {
+            index.put(after.getId(), after.getLatitude(), after.getLongitude(),
+                ProjectGroups.of(after.getCategory(), after.getStatus()));
+            invalidateTiles(after);
+        }
+    }
+
+    public List<ClusterIndex.Feature> getTile(int z, int x, int y, Project.ProjectCategory category,
+                                              Project.ProjectStatus status) {
+        IntPredicate groups = ProjectGroups.matching(category, status);
+        // Out-of-range tiles are rejected by the index and never reach the cache
+        if (z < 0 || z > ClusterIndex.MAX_TILE_ZOOM || x < 0 || y < 0 || x >= 1L << z || y >= 1L << z) {
+            return index.tile(z, x, y, groups);
+        }
+        return tiles.get(tileKey(z, x, y), key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(category + "|" + status, filter -> index.tile(z, x, y, groups));
+    }
+
+    private void invalidateTiles(ProjectDto project) {
+        for (int z = 0; z <= ClusterIndex.MAX_TILE_ZOOM; z++) {
+            tiles.invalidate(tileKey(z, ClusterIndex.tileX(project.getLongitude(), z),
+                ClusterIndex.tileY(project.getLatitude(), z)));
+        }
+    }
+
+    private static boolean isMapped(ProjectDto project) {
+        return project != null && Boolean.TRUE.equals(project.getIsPublic())
+            && project.getLatitude() != null && project.getLongitude() != null
+            && project.getCategory() != null && project.getStatus() != null;
+    }
+
+    private static long tileKey(int z, int x, int y) {
+        return ((long) z << 50) | ((long) x << 25) | y;
+    }
+}
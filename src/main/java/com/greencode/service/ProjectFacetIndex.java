@@ -0,0 +1,183 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFacetQuery;
+import com.greencode.entity.Project;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.FacetIndex;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap facet index over active projects for the project browser, loaded at startup and kept
+ * in sync with committed project writes; node-local, see {@link IndexLoadGate}. Impact scores
+ * and team sizes are indexed by bucket rather than exact value.
+ */
+@Component
+public class ProjectFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectFacetIndex.class);
+
+    // Facet names, in index order; they double as the query parameter names
+    private static final List<String> FACETS =
+        List.of("category", "status", "sustainabilityRating", "impact", "isPublic", "teamSize");
+
+    private static final List<String> IMPACT_BUCKETS = List.of("1-3", "4-6", "7-8", "9-10");
+    private static final List<String> TEAM_SIZE_BANDS = List.of("1-5", "6-20", "21-50", "51+");
+
+    // Every value each facet can take, in display order
+    private static final List<List<String>> OPTIONS = List.of(
+        Arrays.stream(Project.ProjectCategory.values()).map(Enum::name).toList(),
+        Arrays.stream(Project.ProjectStatus.values()).map(Enum::name).toList(),
+        List.of("1", "2", "3", "4", "5"),
+        IMPACT_BUCKETS,
+        List.of("true", "false"),
+        TEAM_SIZE_BANDS);
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final FacetIndex index = new FacetIndex(FACETS.size());
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("greencode.projects.facets.size", index, FacetIndex::size)
+            .description("Projects held in the facet bitmap index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        loadGate.load(() -> {
+            try (Stream<Object[]> rows = projectRepository.streamFacetValues()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    put((Long) row[0], (Project.ProjectCategory) row[1], (Project.ProjectStatus) row[2],
+                        (Integer) row[3], (Integer) row[4], (Boolean) row[5], (Integer) row[6]);
+                }
+            }
+        });
+        log.info("Loaded {} projects into the facet index", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        loadGate.apply(() -> apply(event));
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        ProjectDto after = event.getAfter();
+        if (after == null) {
+            if (event.getProjectId() <= Integer.MAX_VALUE) {
+                index.remove(event.getProjectId().intValue());
+            }
+        } else {
+            put(after.getId(), after.getCategory(), after.getStatus(), after.getSustainabilityRating(),
+                after.getImpactScore(), after.getIsPublic(), after.getTeamSize());
+        }
+    }
+
+    public FacetIndex.Result search(ProjectFacetQuery query, int afterId, int limit) {
+        String[] selected = {
+            query.getCategory() != null ? query.getCategory().name() : null,
+            query.getStatus() != null ? query.getStatus().name() : null,
+            query.getSustainabilityRating() != null ? query.getSustainabilityRating().toString() : null,
+            checkOption("impact", IMPACT_BUCKETS, query.getImpact()),
+            query.getIsPublic() != null ? query.getIsPublic().toString() : null,
+            checkOption("teamSize", TEAM_SIZE_BANDS, query.getTeamSize())
+        };
+        return index.search(selected, afterId, limit);
+    }
+
+    /**
+     * The result's counts keyed by facet name, listing every known value (zero when absent).
+     */
+    public Map<String, Map<String, Integer>> facetCounts(FacetIndex.Result result) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (int facet = 0; facet < FACETS.size(); facet++) {
+            Map<String, Integer> indexed = result.getCounts().get(facet);
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String option : OPTIONS.get(facet)) {
+                counts.put(option, indexed.getOrDefault(option, 0));
+            }
+            // Values outside the documented scales still show up rather than vanish
+            indexed.forEach(counts::putIfAbsent);
+            facets.put(FACETS.get(facet), counts);
+        }
+        return facets;
+    }
+
+    private void put(long id, Project.ProjectCategory category, Project.ProjectStatus status,
+                     Integer sustainabilityRating, Integer impactScore, Boolean isPublic, Integer teamSize) {
+        // Bitmaps hold 32-bit values; the id sequence is nowhere near that range
+        if (id > Integer.MAX_VALUE) {
+            log.warn("Project {} is beyond the facet index id range and will not be faceted", id);
+            return;
+        }
+        index.put((int) id, new String[] {
+            category != null ? category.name() : null,
+            status != null ? status.name() : null,
+            sustainabilityRating != null ? sustainabilityRating.toString() : null,
+            impactBucket(impactScore),
+            isPublic != null ? isPublic.toString() : null,
+            teamSizeBand(teamSize)
+        });
+    }
+
+    private static String impactBucket(Integer impactScore) {
+        if (impactScore == null || impactScore < 1) {
+            return null;
+        }
+        if (impactScore <= 3) {
+            return "1-3";
+        }
+        if (impactScore <= 6) {
+            return "4-6";
+        }
+        return impactScore <= 8 ? "7-8" : "9-10";
+    }
+
+    private static String teamSizeBand(Integer teamSize) {
+        if (teamSize == null || teamSize < 1) {
+            return null;
+        }
+        if (teamSize <= 5) {
+            return "1-5";
+        }
+        if (teamSize <= 20) {
+            return "6-20";
+        }
+        return teamSize <= 50 ? "21-50" : "51+";
+    }
+
+    private static String checkOption(String facet, List<String> options, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (!options.contains(value)) {
+            throw new IllegalArgumentException(facet + " must be one of " + String.join(", ", options));
+        }
+        return value;
+    }
+}
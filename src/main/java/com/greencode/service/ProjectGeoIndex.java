@@ -0,0 +1,85 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.GeoIndex;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory spatial index over the coordinates of active projects, loaded at startup and kept
+ * in sync with committed project writes; node-local, see {@link IndexLoadGate}.
+ */
+@Component
+public class ProjectGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectGeoIndex.class);
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final GeoIndex index = new GeoIndex();
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("greencode.projects.geo.size", index, GeoIndex::size)
+            .description("Projects held in the spatial index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        loadGate.load(() -> {
+            try (Stream<Object[]> rows = projectRepository.streamCoordinates()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    index.put((Long) row[0], (Double) row[1], (Double) row[2]);
+                }
+            }
+        });
+        log.info("Loaded {} projects into the spatial index", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        loadGate.apply(() -> apply(event));
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        ProjectDto after = event.getAfter();
+        if (after == null || after.getLatitude() == null || after.getLongitude() == null) {
+            index.remove(event.getProjectId());
+        } else {
+            index.put(after.getId(), after.getLatitude(), after.getLongitude());
+        }
+    }
+
+    public List<GeoIndex.Hit> withinRadius(double latitude, double longitude, double radiusMeters, int limit) {
+        return index.withinRadius(latitude, longitude, radiusMeters, limit);
+    }
+
+    public List<GeoIndex.Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude,
+                                        double maxLongitude, double referenceLatitude, double referenceLongitude,
+                                        int limit) {
+        return index.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude,
+            referenceLatitude, referenceLongitude, limit);
+    }
+}
@@ -0,0 +1,32 @@
+package com.greencode.service;
+
+import com.greencode.entity.Project;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Encodes a project's category and status as one small int, the group id the map cluster and
+ * timeline indexes store per entry. A category and/or status filter then becomes a predicate
+ * over group ids.
+ */
+final class ProjectGroups {
+
+    private static final int STATUSES = Project.ProjectStatus.values().length;
+
+    static final int COUNT = Project.ProjectCategory.values().length * STATUSES;
+
+    private ProjectGroups() {
+    }
+
+    static int of(Project.ProjectCategory category, Project.ProjectStatus status) {
+        return category.ordinal() * STATUSES + status.ordinal();
+    }
+
+    /**
+     * Groups with the given category and status; a null filter matches any value.
+     */
+    static IntPredicate matching(Project.ProjectCategory category, Project.ProjectStatus status) {
+        return group -> (category == null || group / STATUSES == category.ordinal())
+            && (status == null || group % STATUSES == status.ordinal());
+    }
+}
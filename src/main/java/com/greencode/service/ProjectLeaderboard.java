@@ -0,0 +1,123 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.index.RankedSkipList;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Per-category ranking of public projects by impact score, then sustainability rating, held in
+ * memory. Built from the database at startup and kept in sync with committed project writes;
+ * node-local, see {@link IndexLoadGate}.
+ */
+@Component
+public class ProjectLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectLeaderboard.class);
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Project.ProjectCategory, RankedSkipList> boards =
+        new EnumMap<>(Project.ProjectCategory.class);
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    @PostConstruct
+    void init() {
+        for (Project.ProjectCategory category : Project.ProjectCategory.values()) {
+            RankedSkipList board = new RankedSkipList();
+            boards.put(category, board);
+            Gauge.builder("greencode.projects.leaderboard.size", board, RankedSkipList::size)
+                .description("Projects ranked on the category leaderboard")
+                .tag("category", category.name())
+                .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        loadGate.load(() -> {
+            try (Stream<Object[]> rows = projectRepository.streamLeaderboardScores()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    boards.get((Project.ProjectCategory) row[1])
+                        .put((Long) row[0], score((Integer) row[2], (Integer) row[3]));
+                }
+            }
+        });
+        log.info("Loaded {} projects into the impact leaderboards",
+            boards.values().stream().mapToInt(RankedSkipList::size).sum());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        loadGate.apply(() -> apply(event));
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        ProjectDto before = event.getBefore();
+        ProjectDto after = event.getAfter();
+        boolean ranked = isRanked(after);
+        if (before != null && before.getCategory() != null
+                && (!ranked || before.getCategory() != after.getCategory())) {
+            boards.get(before.getCategory()).remove(before.getId());
+        }
+        if (ranked) {
+            boards.get(after.getCategory())
+                .put(after.getId(), score(after.getImpactScore(), after.getSustainabilityRating()));
+        }
+    }
+
+    public List<RankedSkipList.Entry> top(Project.ProjectCategory category, int limit) {
+        return boards.get(category).top(limit);
+    }
+
+    /**
+     * The category and 1-based rank of a project, if it is on a leaderboard.
+     */
+    public Optional<Map.Entry<Project.ProjectCategory, Integer>> rankOf(long projectId) {
+        for (Map.Entry<Project.ProjectCategory, RankedSkipList> board : boards.entrySet()) {
+            int rank = board.getValue().rank(projectId);
+            if (rank > 0) {
+                return Optional.of(Map.entry(board.getKey(), rank));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int size(Project.ProjectCategory category) {
+        return boards.get(category).size();
+    }
+
+    private static boolean isRanked(ProjectDto project) {
+        return project != null && Boolean.TRUE.equals(project.getIsPublic())
+            && project.getCategory() != null && project.getImpactScore() != null;
+    }
+
+    // Impact score decides; sustainability rating breaks ties
+    private static long score(Integer impactScore, Integer sustainabilityRating) {
+        return ((long) impactScore << 8) | (sustainabilityRating != null ? sustainabilityRating & 0xFF : 0);
+    }
+}
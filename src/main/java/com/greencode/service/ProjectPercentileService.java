@@ -0,0 +1,327 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectPercentilesDto;
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectQuantileSketch;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.TDigest;
+import com.greencode.repository.ProjectQuantileSketchRepository;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Budget, actual cost and overrun percentiles per category and status, answered from in-memory
+ * t-digests instead of sorting projects. A periodic rebuild streams every project once,
+ * replaces the digests and persists them as a shared snapshot, so starting nodes need no scan.
+ *
+ * Between rebuilds only creates are added, to a separate set of digests that queries merge in
+ * and that each node persists under its own id; a starting node merges every node's creates on
+ * top of the snapshot they were made against. Digests cannot forget values, so updates and
+ * deletes are not applied at all until the next hourly rebuild: until then each one leaves one
+ * outdated sample per metric in its old group. A group's answers are therefore off by at most
+ * the share of its projects changed since the rebuild, in rank terms; the number of such changes
+ * on this node is exported as greencode.projects.percentiles.pending_changes.
+ */
+@Service
+public class ProjectPercentileService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectPercentileService.class);
+
+    private static final int MAX_QUANTILES = 20;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectQuantileSketchRepository sketchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greencode.projects.percentiles.compression:100}")
+    private double compression;
+
+    @Value("${greencode.projects.percentiles.rebuild-enabled:true}")
+    private boolean rebuildEnabled;
+
+    // Per process, so a restarted node never overwrites the creates it persisted before
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private Timer rebuildTimer;
+
+    // Swapped whole by a rebuild; the recent digests hold this node's creates since the snapshot
+    private volatile Sketches sketches = new Sketches(Map.of(), new ConcurrentHashMap<>(), null);
+
+    // Updates and deletes on this node since the last rebuild, whose old figures only a rebuild can take out
+    private final AtomicLong pendingChanges = new AtomicLong();
+
+    // Creates recorded since this node last persisted them
+    private volatile boolean recentChanged;
+
+    // Non-null while a rebuild is scanning, to catch writes the scan may have missed
+    private volatile Map<ProjectQuantileSketch.Key, TDigest> capture;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        rebuildTimer = Timer.builder("greencode.projects.percentiles.rebuild")
+            .description("Time to rebuild the project percentile sketches from projects")
+            .register(meterRegistry);
+        Gauge.builder("greencode.projects.percentiles.pending_changes", pendingChanges, AtomicLong::get)
+            .description("Project updates and deletes on this node not yet reflected in the percentiles")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ProjectQuantileSketch> snapshot = sketchRepository.findByNodeId(ProjectQuantileSketch.SNAPSHOT_NODE);
+        if (snapshot.isEmpty()) {
+            rebuild();
+            return;
+        }
+        LocalDateTime generation = snapshot.get(0).getGeneration();
+        Map<ProjectQuantileSketch.Key, TDigest> base = new ConcurrentHashMap<>();
+        for (ProjectQuantileSketch row : snapshot) {
+            base.put(key(row), TDigest.fromBytes(row.getDigest()));
+        }
+        List<ProjectQuantileSketch> deltas =
+            sketchRepository.findDeltas(ProjectQuantileSketch.SNAPSHOT_NODE, generation);
+        for (ProjectQuantileSketch row : deltas) {
+            base.computeIfAbsent(key(row), key -> new TDigest(compression))
+                .merge(TDigest.fromBytes(row.getDigest()));
+        }
+        // Creates seen before the load may also be in the snapshot; counting them twice is the safe side
+        sketches = new Sketches(base, sketches.recent, generation);
+        log.info("Loaded {} project percentile sketches and {} node deltas", snapshot.size(), deltas.size());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.getBefore() != null) {
+            pendingChanges.incrementAndGet();
+            return;
+        }
+        ProjectDto after = event.getAfter();
+        if (after.getCategory() == null || after.getStatus() == null) {
+            return;
+        }
+        record(sketches.recent, after.getCategory(), after.getStatus(), after.getBudget(), after.getActualCost());
+        recentChanged = true;
+        Map<ProjectQuantileSketch.Key, TDigest> pending = capture;
+        if (pending != null) {
+            record(pending, after.getCategory(), after.getStatus(), after.getBudget(), after.getActualCost());
+        }
+    }
+
+    @Scheduled(cron = "${greencode.projects.percentiles.rebuild-cron:0 45 * * * *}")
+    public void scheduledRebuild() {
+        if (rebuildEnabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Persists the creates recorded on this node since the last refresh. Never rescans projects;
+     * only the hourly rebuild does.
+     */
+    @Scheduled(fixedDelayString = "${greencode.projects.percentiles.refresh-delay:PT5M}")
+    public void refresh() {
+        persistCreates();
+    }
+
+    /**
+     * Recomputes every digest from projects, swaps them in and persists the snapshot.
+     */
+    public synchronized void rebuild() {
+        rebuildTimer.record(() -> {
+            // Cleared first, so an update during the scan still counts against the new digests
+            pendingChanges.set(0);
+            capture = new ConcurrentHashMap<>();
+            LocalDateTime generation = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            Map<ProjectQuantileSketch.Key, TDigest> base = new ConcurrentHashMap<>();
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = projectRepository.streamMoneyFigures()) {
+                    for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                        record(base, (Project.ProjectCategory) row[0], (Project.ProjectStatus) row[1],
+                            (BigDecimal) row[2], (BigDecimal) row[3]);
+                    }
+                }
+            });
+            // Creates committed during the scan may also be in it; counting them twice is the safe side
+            sketches = new Sketches(base, capture, generation);
+            recentChanged = !capture.isEmpty();
+            capture = null;
+            persistSnapshot(base, generation);
+        });
+    }
+
+    public ProjectPercentilesDto getPercentiles(ProjectQuantileSketch.Metric metric,
+                                                Project.ProjectCategory category,
+                                                Project.ProjectStatus status,
+                                                List<Double> quantiles) {
+        if (metric == null) {
+            throw new IllegalArgumentException("Metric is required");
+        }
+        if (quantiles.isEmpty() || quantiles.size() > MAX_QUANTILES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_QUANTILES + " quantiles may be requested");
+        }
+        for (Double q : quantiles) {
+            if (q == null || !(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("Quantiles must be between 0 and 1");
+            }
+        }
+
+        Sketches current = sketches;
+        TDigest combined = new TDigest(compression);
+        mergeMatching(combined, current.base, metric, category, status);
+        mergeMatching(combined, current.recent, metric, category, status);
+
+        long count = combined.count();
+        Map<Double, Double> values = new LinkedHashMap<>();
+        for (Double q : quantiles) {
+            values.put(q, count > 0 ? combined.quantile(q) : null);
+        }
+        return new ProjectPercentilesDto(metric, category, status, count,
+            count > 0 ? combined.min() : null, count > 0 ? combined.max() : null, values);
+    }
+
+    /**
+     * Replaces the shared snapshot unless another node has already stored a newer one, and drops
+     * node deltas made against older snapshots, which this one covers.
+     */
+    private void persistSnapshot(Map<ProjectQuantileSketch.Key, TDigest> base, LocalDateTime generation) {
+        List<ProjectQuantileSketch> rows = rows(ProjectQuantileSketch.SNAPSHOT_NODE, base, generation);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime stored =
+                    sketchRepository.findSnapshotGeneration(ProjectQuantileSketch.SNAPSHOT_NODE);
+                if (stored != null && stored.isAfter(generation)) {
+                    return;
+                }
+                sketchRepository.deleteByNode(ProjectQuantileSketch.SNAPSHOT_NODE);
+                sketchRepository.deleteDeltasBefore(ProjectQuantileSketch.SNAPSHOT_NODE, generation);
+                sketchRepository.saveAll(rows);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Project percentile sketches were persisted concurrently by another node");
+        }
+    }
+
+    // Only this node's rows are touched, so nodes never overwrite each other's creates
+    private void persistCreates() {
+        Sketches current = sketches;
+        if (!recentChanged || current.generation == null) {
+            return;
+        }
+        recentChanged = false;
+        List<ProjectQuantileSketch> rows = rows(nodeId, current.recent, current.generation);
+        transactionTemplate.executeWithoutResult(status -> {
+            sketchRepository.deleteByNode(nodeId);
+            sketchRepository.saveAll(rows);
+        });
+    }
+
+    private static List<ProjectQuantileSketch> rows(String node, Map<ProjectQuantileSketch.Key, TDigest> digests,
+                                                    LocalDateTime generation) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProjectQuantileSketch> rows = new ArrayList<>(digests.size());
+        for (Map.Entry<ProjectQuantileSketch.Key, TDigest> entry : digests.entrySet()) {
+            ProjectQuantileSketch.Key key = entry.getKey();
+            ProjectQuantileSketch row =
+                new ProjectQuantileSketch(node, key.getCategory(), key.getStatus(), key.getMetric());
+            row.setDigest(entry.getValue().toBytes());
+            row.setSampleCount(entry.getValue().count());
+            row.setGeneration(generation);
+            row.setUpdatedAt(now);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static ProjectQuantileSketch.Key key(ProjectQuantileSketch row) {
+        return new ProjectQuantileSketch.Key(row.getCategory(), row.getStatus(), row.getMetric());
+    }
+
+    private void record(Map<ProjectQuantileSketch.Key, TDigest> digests, Project.ProjectCategory category,
+                        Project.ProjectStatus status, BigDecimal budget, BigDecimal actualCost) {
+        if (budget != null) {
+            digest(digests, category, status, ProjectQuantileSketch.Metric.BUDGET).add(budget.doubleValue());
+        }
+        if (actualCost != null) {
+            digest(digests, category, status, ProjectQuantileSketch.Metric.ACTUAL_COST)
+                .add(actualCost.doubleValue());
+        }
+        if (budget != null && actualCost != null) {
+            digest(digests, category, status, ProjectQuantileSketch.Metric.OVERRUN)
+                .add(actualCost.subtract(budget).doubleValue());
+        }
+    }
+
+    private TDigest digest(Map<ProjectQuantileSketch.Key, TDigest> digests, Project.ProjectCategory category,
+                           Project.ProjectStatus status, ProjectQuantileSketch.Metric metric) {
+        return digests.computeIfAbsent(new ProjectQuantileSketch.Key(category, status, metric),
+            key -> new TDigest(compression));
+    }
+
+    private static void mergeMatching(TDigest target, Map<ProjectQuantileSketch.Key, TDigest> digests,
+                                      ProjectQuantileSketch.Metric metric, Project.ProjectCategory category,
+                                      Project.ProjectStatus status) {
+        for (Map.Entry<ProjectQuantileSketch.Key, TDigest> entry : digests.entrySet()) {
+            ProjectQuantileSketch.Key key = entry.getKey();
+            if (key.getMetric() == metric
+                    && (category == null || key.getCategory() == category)
+                    && (status == null || key.getStatus() == status)) {
+                target.merge(entry.getValue());
+            }
+        }
+    }
+
+    private static final class Sketches {
+        final Map<ProjectQuantileSketch.Key, TDigest> base;
+        final Map<ProjectQuantileSketch.Key, TDigest> recent;
+        // Start of the scan behind base; null until the first load
+        final LocalDateTime generation;
+
+        Sketches(Map<ProjectQuantileSketch.Key, TDigest> base, Map<ProjectQuantileSketch.Key, TDigest> recent,
+                 LocalDateTime generation) {
+            this.base = base;
+            this.recent = recent;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectRollupDto;
+import com.greencode.entity.Project;
+import com.greencode.entity.ProjectRollup;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.repository.ProjectRepository;
+import com.greencode.repository.ProjectRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Budget and cost totals per category and status. Each project write applies its delta to the
+ * affected rollup rows inside the write's own transaction, so the totals commit or roll back
+ * with the project. A scheduled reconciliation recomputes the totals from projects and repairs
+ * any row that has drifted (for example after a manual SQL fix), without blocking writers.
+ */
+@Service
+public class ProjectRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectRollupService.class);
+
+    // Writers update rows in one fixed order, so two writers never deadlock
+    private static final Comparator<ProjectRollup.Key> KEY_ORDER = Comparator
+        .comparing((ProjectRollup.Key key) -> key.getCategory().name())
+        .thenComparing(key -> key.getStatus().name());
+
+    private static final int COMBINATIONS =
+        Project.ProjectCategory.values().length * Project.ProjectStatus.values().length;
+
+    @Autowired
+    private ProjectRollupRepository rollupRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greencode.projects.rollups.reconcile-enabled:true}")
+    private boolean reconcileEnabled;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter repairedRows;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        repairedRows = Counter.builder("greencode.projects.rollups.repaired")
+            .description("Rollup rows found out of step with projects and corrected")
+            .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjectRollupDto> getRollups(Project.ProjectCategory category, Project.ProjectStatus status) {
+        return rollupRepository.findAllOrdered().stream()
+            .filter(rollup -> category == null || rollup.getCategory() == category)
+            .filter(rollup -> status == null || rollup.getStatus() == status)
+            .map(ProjectRollupDto::new)
+            .toList();
+    }
+
+    /**
+     * Runs synchronously inside the project write's transaction (unlike the after-commit index
+     * listeners), which is what keeps the totals exact.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        Map<ProjectRollup.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        contribute(deltas, event.getBefore(), -1);
+        contribute(deltas, event.getAfter(), 1);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<ProjectRollup.Key, Delta> entry : deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            if (delta.isZero()) {
+                continue;
+            }
+            ProjectRollup.Key key = entry.getKey();
+            int updated = rollupRepository.applyDelta(key.getCategory(), key.getStatus(),
+                delta.count, delta.budget, delta.cost, now);
+            if (updated == 0) {
+                // Row not seeded yet (e.g. a new enum value); create it, then apply the delta
+                rollupRepository.saveAndFlush(new ProjectRollup(key.getCategory(), key.getStatus()));
+                rollupRepository.applyDelta(key.getCategory(), key.getStatus(),
+                    delta.count, delta.budget, delta.cost, now);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        // First start against existing projects: seed every combination from the base table
+        if (rollupRepository.count() < COMBINATIONS) {
+            try {
+                reconcile();
+            } catch (DataIntegrityViolationException e) {
+                log.info("Project rollups were seeded concurrently by another node");
+            }
+        }
+    }
+
+    @Scheduled(cron = "${greencode.projects.rollups.reconcile-cron:0 15 * * * *}")
+    public void scheduledReconcile() {
+        if (reconcileEnabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recomputes every combination from projects and corrects rows that differ. Nothing is
+     * locked during the recount. The rollup rows are read before it, and each correction is a
+     * short single-row update that only applies if the row's version is unchanged since then.
+     * A row that a write moved in the meantime may no longer match the recount, so it is left
+     * for the next run.
+     *
+     * @return the number of rows that were created or corrected
+     */
+    public int reconcile() {
+        // Read first: any delta committed after this bumps the row's version
+        Map<ProjectRollup.Key, ProjectRollup> rollups = new HashMap<>();
+        for (ProjectRollup rollup : rollupRepository.findAllOrdered()) {
+            rollups.put(new ProjectRollup.Key(rollup.getCategory(), rollup.getStatus()), rollup);
+        }
+
+        Map<ProjectRollup.Key, Object[]> actual = new HashMap<>();
+        for (Object[] row : projectRepository.summarizeByCategoryAndStatus()) {
+            ProjectRollup.Key key =
+                new ProjectRollup.Key((Project.ProjectCategory) row[0], (Project.ProjectStatus) row[1]);
+            actual.put(key, row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int corrected = 0;
+        int skipped = 0;
+        for (Project.ProjectCategory category : Project.ProjectCategory.values()) {
+            for (Project.ProjectStatus projectStatus : Project.ProjectStatus.values()) {
+                ProjectRollup.Key key = new ProjectRollup.Key(category, projectStatus);
+                Object[] row = actual.get(key);
+                long count = row != null ? ((Number) row[2]).longValue() : 0;
+                BigDecimal budget = row != null ? toBigDecimal(row[3]) : BigDecimal.ZERO;
+                BigDecimal cost = row != null ? toBigDecimal(row[4]) : BigDecimal.ZERO;
+
+                ProjectRollup rollup = rollups.get(key);
+                if (rollup == null) {
+                    rollup = new ProjectRollup(category, projectStatus);
+                } else if (rollup.getProjectCount() == count
+                        && rollup.getTotalBudget().compareTo(budget) == 0
+                        && rollup.getTotalActualCost().compareTo(cost) == 0) {
+                    continue;
+                } else {
+                    log.warn("Project rollup {}/{} drifted: count {} vs {}, budget {} vs {}, cost {} vs {}",
+                        category, projectStatus, rollup.getProjectCount(), count,
+                        rollup.getTotalBudget(), budget, rollup.getTotalActualCost(), cost);
+                }
+                rollup.setProjectCount(count);
+                rollup.setTotalBudget(budget);
+                rollup.setTotalActualCost(cost);
+                rollup.setUpdatedAt(now);
+                if (correct(rollup)) {
+                    corrected++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.info("Left {} project rollups written during reconciliation for the next run", skipped);
+        }
+        if (corrected > 0) {
+            repairedRows.increment(corrected);
+        }
+        return corrected;
+    }
+
+    // One short transaction per row; fails rather than overwrite a delta applied since the read
+    private boolean correct(ProjectRollup rollup) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.save(rollup));
+            return true;
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static void contribute(Map<ProjectRollup.Key, Delta> deltas, ProjectDto project, int sign) {
+        if (project == null || project.getCategory() == null || project.getStatus() == null) {
+            return;
+        }
+        ProjectRollup.Key key = new ProjectRollup.Key(project.getCategory(), project.getStatus());
+        deltas.computeIfAbsent(key, k -> new Delta()).add(sign, project.getBudget(), project.getActualCost());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(Objects.toString(value));
+    }
+
+    private static final class Delta {
+        long count;
+        BigDecimal budget = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+
+        void add(int sign, BigDecimal projectBudget, BigDecimal projectCost) {
+            count += sign;
+            if (projectBudget != null) {
+                budget = sign > 0 ? budget.add(projectBudget) : budget.subtract(projectBudget);
+            }
+            if (projectCost != null) {
+                cost = sign > 0 ? cost.add(projectCost) : cost.subtract(projectCost);
+            }
+        }
+
+        boolean isZero() {
+            return count == 0 && budget.signum() == 0 && cost.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over project name, description and location, kept on local disk.
+ * Matches are ranked with BM25 (Lucene's default similarity). Each query word also matches
+ * as a prefix and within a small edit distance, with exact hits scored highest.
+ *
+ * Committed project writes on this node are applied straight away and become searchable at the
+ * next refresh, about a second later. Writes on other nodes are never announced here; they are
+ * picked up by a periodic catch-up that re-reads the projects updated since the newest update
+ * time a database read has returned, and drops those deleted since then. The index therefore
+ * trails other nodes' writes by up to the catch-up interval. The watermark only moves with
+ * database reads, never with local events, so it cannot pass a write this node has not read.
+ *
+ * A missing index is rebuilt at startup by a parallel bulk load; an existing one starts with a
+ * catch-up from its committed watermark. Search returns ids only, and callers read the rows, so
+ * a project deleted on another node never reaches a result while the index still has it.
+ */
+@Component
+public class ProjectSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String LOCATION = "location";
+    private static final String CATEGORY = "category";
+    private static final String STATUS = "status";
+
+    // Field weights: a word in the name says more about a project than one in its description
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(NAME, 3f, LOCATION, 2f, DESCRIPTION, 1f);
+
+    private static final String UPDATED_AT_KEY = "updatedAt";
+    // Catch-up re-reads a little before the recorded watermark to allow for clock skew
+    private static final long CATCH_UP_OVERLAP_MINUTES = 5;
+    private static final int BULK_BATCH_SIZE = 1000;
+    private static final int MAX_QUERY_TERMS = 16;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${greencode.projects.search.index-dir:./data/project-search}")
+    private String indexDir;
+
+    @Value("${greencode.projects.search.bulk-threads:0}")
+    private int bulkThreads;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+    private volatile boolean loaded;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private boolean indexExisted;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private Timer searchTimer;
+
+    @PostConstruct
+    void init() {
+        try {
+            directory = FSDirectory.open(Paths.get(indexDir));
+            indexExisted = DirectoryReader.indexExists(directory);
+            if (indexExisted) {
+                String updatedAt = SegmentInfos.readLatestCommit(directory).getUserData().get(UPDATED_AT_KEY);
+                if (updatedAt != null) {
+                    watermark.set(LocalDateTime.parse(updatedAt));
+                }
+            }
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, new SearcherFactory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the project search index at " + indexDir, e);
+        }
+
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        searchTimer = Timer.builder("greencode.projects.search.latency")
+            .description("Time spent running full-text project searches")
+            .register(meterRegistry);
+        Gauge.builder("greencode.projects.search.documents", writer, w -> w.getDocStats().numDocs)
+            .description("Documents in the full-text project index")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        try {
+            commit();
+        } finally {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime since = watermark.get();
+        try {
+            if (!indexExisted || since == null) {
+                bulkIndex(null);
+            } else {
+                catchUp(since);
+            }
+            commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not build the project search index", e);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Applies the project writes made on other nodes since the last database read.
+     */
+    @Scheduled(fixedDelayString = "${greencode.projects.search.catch-up-interval-ms:60000}")
+    public void catchUp() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime since = watermark.get();
+        try {
+            if (since == null) {
+                // Nothing was read yet: every project so far arrived through a local event
+                bulkIndex(null);
+            } else {
+                catchUp(since);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not catch up the project search index", e);
+        }
+    }
+
+    // A re-read can race a local event for the same project and index the older row; the next
+    // catch-up re-reads it, since the overlap reaches back past the event
+    private void catchUp(LocalDateTime since) throws IOException {
+        bulkIndex(since.minusMinutes(CATCH_UP_OVERLAP_MINUTES));
+        deleteInactive(since.minusMinutes(CATCH_UP_OVERLAP_MINUTES));
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        ProjectDto after = event.getAfter();
+        try {
+            if (after == null) {
+                writer.deleteDocuments(new Term(ID, String.valueOf(event.getProjectId())));
+            } else {
+                writer.updateDocument(new Term(ID, String.valueOf(after.getId())), document(after.getId(),
+                    after.getName(), after.getDescription(), after.getLocation(), after.getCategory(),
+                    after.getStatus()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index project " + event.getProjectId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${greencode.projects.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes everything indexed so far durable, together with the newest update time read from
+     * the database.
+     */
+    @Scheduled(fixedDelayString = "${greencode.projects.search.commit-interval-ms:60000}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        LocalDateTime updatedAt = watermark.get();
+        if (updatedAt != null) {
+            writer.setLiveCommitData(Map.of(UPDATED_AT_KEY, updatedAt.toString()).entrySet());
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Best matches for the text, highest score first, optionally restricted to a category and
+     * status. Every word of the text must match in at least one field.
+     */
+    public List<Hit> search(String text, Project.ProjectCategory category, Project.ProjectStatus status,
+                            int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text must contain at least one word");
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms.subList(0, Math.min(terms.size(), MAX_QUERY_TERMS))) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (category != null) {
+            query.add(new TermQuery(new Term(CATEGORY, category.name())), BooleanClause.Occur.FILTER);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        }
+        Query built = query.build();
+
+        long started = System.nanoTime();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(built, limit);
+            List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                String id = searcher.storedFields().document(scoreDoc.doc).get(ID);
+                hits.add(new Hit(Long.parseLong(id), scoreDoc.score));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            searcherManager.release(searcher);
+            searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One query word: exact, prefix or fuzzy in any text field, the looser forms weighted lower
+    private static Query termQuery(String term) {
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        BooleanQuery.Builder alternatives = new BooleanQuery.Builder();
+        for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+            Term exact = new Term(field.getKey(), term);
+            float boost = field.getValue();
+            alternatives.add(new BoostQuery(new TermQuery(exact), boost), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 2) {
+                alternatives.add(new BoostQuery(new PrefixQuery(exact), boost * 0.5f), BooleanClause.Occur.SHOULD);
+            }
+            if (maxEdits > 0) {
+                // The first character must match, which keeps the fuzzy term walk small
+                alternatives.add(new BoostQuery(new FuzzyQuery(exact, maxEdits, 1), boost * 0.3f),
+                    BooleanClause.Occur.SHOULD);
+            }
+        }
+        return alternatives.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Indexes every project, or those updated since the given time. One thread reads rows while
+     * a pool of writer threads analyzes and adds them; IndexWriter is thread-safe.
+     */
+    private void bulkIndex(LocalDateTime since) throws IOException {
+        int threads = bulkThreads > 0 ? bulkThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Bounds the batches waiting for a writer thread, so reading cannot outrun indexing
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        AtomicLong indexed = new AtomicLong();
+        long started = System.nanoTime();
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = since == null
+                        ? projectRepository.streamSearchText()
+                        : projectRepository.streamSearchTextUpdatedSince(since)) {
+                    List<Object[]> batch = new ArrayList<>(BULK_BATCH_SIZE);
+                    for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                        batch.add(row);
+                        if (batch.size() == BULK_BATCH_SIZE) {
+                            submit(executor, inFlight, batch, failure, indexed);
+                            batch = new ArrayList<>(BULK_BATCH_SIZE);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        submit(executor, inFlight, batch, failure, indexed);
+                    }
+                }
+            });
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (since == null || indexed.get() > 0) {
+            log.info("{} {} projects into the full-text index in {} ms", since == null ? "Indexed" : "Caught up",
+                indexed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Removes the projects soft-deleted since the given time, including those deleted while this
+     * node was down. The catch-up read cannot see them, since entity reads skip inactive rows.
+     */
+    private void deleteInactive(LocalDateTime since) throws IOException {
+        List<Long> ids = readOnlyTransactionTemplate.execute(
+            status -> projectRepository.findInactiveIdsUpdatedSince(since));
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Term[] terms = new Term[ids.size()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new Term(ID, String.valueOf(ids.get(i)));
+        }
+        writer.deleteDocuments(terms);
+        log.info("Removed {} deleted projects from the full-text index", ids.size());
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, List<Object[]> batch,
+                        AtomicReference<IOException> failure, AtomicLong indexed) {
+        inFlight.acquireUninterruptibly();
+        executor.execute(() -> {
+            try {
+                for (Object[] row : batch) {
+                    Long id = (Long) row[0];
+                    // Update rather than add: a live write for the same project may have landed first
+                    writer.updateDocument(new Term(ID, String.valueOf(id)), document(id, (String) row[1],
+                        (String) row[2], (String) row[3], (Project.ProjectCategory) row[4],
+                        (Project.ProjectStatus) row[5]));
+                    advanceWatermark((LocalDateTime) row[6]);
+                }
+                indexed.addAndGet(batch.size());
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void advanceWatermark(LocalDateTime updatedAt) {
+        if (updatedAt != null) {
+            watermark.accumulateAndGet(updatedAt,
+                (current, candidate) -> current == null || candidate.isAfter(current) ? candidate : current);
+        }
+    }
+
+    private static Document document(long id, String name, String description, String location,
+                                     Project.ProjectCategory category, Project.ProjectStatus status) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        if (name != null) {
+            document.add(new TextField(NAME, name, Field.Store.NO));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        if (location != null) {
+            document.add(new TextField(LOCATION, location, Field.Store.NO));
+        }
+        if (category != null) {
+            document.add(new StringField(CATEGORY, category.name(), Field.Store.NO));
+        }
+        if (status != null) {
+            document.add(new StringField(STATUS, status.name(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final float score;
+
+        public Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
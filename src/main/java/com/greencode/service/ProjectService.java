@@ -0,0 +1,314 @@
+package com.greencode.service;
+
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.LeaderboardEntryDto;
+import com.greencode.dto.NearbyProjectDto;
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFacetPageDto;
+import com.greencode.dto.ProjectFacetQuery;
+import com.greencode.dto.ProjectFilter;
+import com.greencode.dto.ProjectRankDto;
+import com.greencode.dto.ProjectSearchHitDto;
+import com.greencode.entity.Project;
+import com.greencode.entity.User;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.FacetIndex;
+import com.greencode.index.GeoIndex;
+import com.greencode.index.RankedSkipList;
+import com.greencode.repository.ProjectRepository;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries run in read-only transactions by default, as in UserService; methods that write
+ * declare their own read-write transaction. Deleting a project soft-deletes it.
+ *
+ * Every write publishes a {@link ProjectChangedEvent} that the in-memory project indexes apply
+ * once the transaction has committed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectService {
+
+    // Half the Earth's circumference; any larger radius covers the whole globe
+    private static final double MAX_RADIUS_KM = 20_016;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    @Autowired
+    private ProjectGeoIndex projectGeoIndex;
+
+    @Autowired
+    private ProjectLeaderboard projectLeaderboard;
+
+    @Autowired
+    private ProjectFacetIndex projectFacetIndex;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Pagination pagination;
+
+    public CursorPage<ProjectDto> getProjects(ProjectFilter filter, String cursor, Integer size) {
+        validateFilter(filter);
+        int pageSize = pagination.resolvePageSize(size);
+        // Fetch one extra row to learn whether another page exists without counting
+        List<ProjectDto> rows = projectRepository.findPage(filter, Pagination.decodeCursor(cursor), pageSize + 1);
+        return Pagination.toPage(rows, pageSize, last -> new KeysetCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    // The detail view includes the description, which the listing projection leaves out
+    public Optional<ProjectDto> getProjectById(Long id) {
+        return projectRepository.findById(id).map(ProjectDto::new);
+    }
+
+    /**
+     * Projects within {@code radiusKm} of the point, nearest first. The spatial index picks the
+     * ids; only those rows are read from the database.
+     */
+    public List<NearbyProjectDto> getProjectsNear(double latitude, double longitude, double radiusKm,
+                                                  Integer limit) {
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_KM + " km");
+        }
+        List<GeoIndex.Hit> hits = projectGeoIndex.withinRadius(latitude, longitude, radiusKm * 1000,
+            pagination.resolvePageSize(limit));
+        return loadHits(hits);
+    }
+
+    /**
+     * Projects inside the box, nearest to the reference point first (the box centre when no
+     * reference is given). A box with minLng greater than maxLng crosses the antimeridian.
+     */
+    public List<NearbyProjectDto> getProjectsWithin(double minLatitude, double minLongitude,
+                                                    double maxLatitude, double maxLongitude,
+                                                    Double referenceLatitude, Double referenceLongitude,
+                                                    Integer limit) {
+        double refLatitude = referenceLatitude != null ? referenceLatitude : (minLatitude + maxLatitude) / 2;
+        double refLongitude;
+        if (referenceLongitude != null) {
+            refLongitude = referenceLongitude;
+        } else if (minLongitude <= maxLongitude) {
+            refLongitude = (minLongitude + maxLongitude) / 2;
+        } else {
+            double centre = (minLongitude + maxLongitude + 360) / 2;
+            refLongitude = centre > 180 ? centre - 360 : centre;
+        }
+        List<GeoIndex.Hit> hits = projectGeoIndex.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude,
+            refLatitude, refLongitude, pagination.resolvePageSize(limit));
+        return loadHits(hits);
+    }
+
+    /**
+     * The highest-impact public projects of a category. Ranks come from the in-memory
+     * leaderboard; only the listed rows are read from the database.
+     */
+    public List<LeaderboardEntryDto> getLeaderboard(Project.ProjectCategory category, Integer limit) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        List<RankedSkipList.Entry> entries = projectLeaderboard.top(category, pagination.resolvePageSize(limit));
+        return projectRepository.hydrate(entries, RankedSkipList.Entry::getId,
+            (entry, project) -> new LeaderboardEntryDto(entry.getRank(), project));
+    }
+
+    public Optional<ProjectRankDto> getProjectRank(Long id) {
+        return projectLeaderboard.rankOf(id).map(rank -> new ProjectRankDto(
+            id, rank.getKey(), rank.getValue(), projectLeaderboard.size(rank.getKey())));
+    }
+
+    /**
+     * Faceted project search: the facet bitmaps produce the matching ids, the total and every
+     * facet count in one call, and only the page's rows are read. Pages are ordered by id and the
+     * cursor is an id-only {@link KeysetCursor} for the last id returned.
+     */
+    public ProjectFacetPageDto searchFacets(ProjectFacetQuery query, String cursor, Integer size) {
+        int pageSize = pagination.resolvePageSize(size);
+        KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        if (after != null && (after.getId() < 0 || after.getId() > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int afterId = after != null ? after.getId().intValue() : -1;
+        // One extra id tells whether another page exists
+        FacetIndex.Result result = projectFacetIndex.search(query, afterId, pageSize + 1);
+        int[] ids = result.getIds();
+        boolean hasNext = ids.length > pageSize;
+        int pageLength = Math.min(ids.length, pageSize);
+
+        List<Long> pageIds = new ArrayList<>(pageLength);
+        for (int i = 0; i < pageLength; i++) {
+            pageIds.add((long) ids[i]);
+        }
+        List<ProjectDto> content = projectRepository.hydrate(pageIds);
+        String nextCursor = hasNext ? new KeysetCursor(null, (long) ids[pageLength - 1]).encode() : null;
+        return new ProjectFacetPageDto(content, pageSize, hasNext, nextCursor, result.getTotal(),
+            projectFacetIndex.facetCounts(result));
+    }
+
+    /**
+     * Full-text search over name, description and location, best match first. The search index
+     * ranks the ids; only the listed rows are read from the database.
+     */
+    public List<ProjectSearchHitDto> searchProjects(String text, Project.ProjectCategory category,
+                                                    Project.ProjectStatus status, Integer limit) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        List<ProjectSearchIndex.Hit> hits =
+            projectSearchIndex.search(text, category, status, pagination.resolvePageSize(limit));
+        return projectRepository.hydrate(hits, ProjectSearchIndex.Hit::getId,
+            (hit, project) -> new ProjectSearchHitDto(hit.getScore(), project));
+    }
+
+    private List<NearbyProjectDto> loadHits(List<GeoIndex.Hit> hits) {
+        return projectRepository.hydrate(hits, GeoIndex.Hit::getId,
+            (hit, project) -> new NearbyProjectDto(project, hit.getDistanceMeters() / 1000));
+    }
+
+    @Transactional
+    public ProjectDto createProject(Project project) {
+        validateProjectInput(project);
+        project.setId(null);
+        project.setIsActive(true);
+        applyCoordinates(project, project.getCoordinates(), project.getLatitude(), project.getLongitude());
+        project.setManager(resolveManager(project.getManager()));
+
+        ProjectDto created = new ProjectDto(projectRepository.save(project));
+        eventPublisher.publishEvent(new ProjectChangedEvent(null, created));
+        return created;
+    }
+
+    @Transactional
+    public ProjectDto updateProject(Long id, Project projectDetails) {
+        validateProjectInput(projectDetails);
+        Project project = projectRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Project not found"));
+        ProjectDto before = new ProjectDto(project);
+
+        project.setName(projectDetails.getName());
+        project.setDescription(projectDetails.getDescription());
+        project.setCategory(projectDetails.getCategory());
+        if (projectDetails.getStatus() != null) {
+            project.setStatus(projectDetails.getStatus());
+        }
+        project.setStartDate(projectDetails.getStartDate());
+        project.setEndDate(projectDetails.getEndDate());
+        project.setBudget(projectDetails.getBudget());
+        project.setActualCost(projectDetails.getActualCost());
+        project.setLocation(projectDetails.getLocation());
+        applyCoordinates(project, projectDetails.getCoordinates(),
+            projectDetails.getLatitude(), projectDetails.getLongitude());
+        project.setImpactScore(projectDetails.getImpactScore());
+        project.setSustainabilityRating(projectDetails.getSustainabilityRating());
+        project.setManager(resolveManager(projectDetails.getManager()));
+        project.setTeamSize(projectDetails.getTeamSize());
+        if (projectDetails.getIsPublic() != null) {
+            project.setIsPublic(projectDetails.getIsPublic());
+        }
+
+        ProjectDto updated = new ProjectDto(projectRepository.save(project));
+        eventPublisher.publishEvent(new ProjectChangedEvent(before, updated));
+        return updated;
+    }
+
+    @Transactional
+    public void deleteProject(Long id) {
+        Project project = projectRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Project not found"));
+        ProjectDto before = new ProjectDto(project);
+        project.setIsActive(false);
+        projectRepository.save(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(before, null));
+    }
+
+    private void validateProjectInput(Project project) {
+        if (project == null) {
+            throw new IllegalArgumentException("Project details must not be null");
+        }
+        if (project.getName() == null || project.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Project name must not be empty");
+        }
+        if (project.getCategory() == null) {
+            throw new IllegalArgumentException("Project category is required");
+        }
+        if (project.getStartDate() != null && project.getEndDate() != null
+                && project.getEndDate().isBefore(project.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+
+    private static void validateFilter(ProjectFilter filter) {
+        if (filter.getStartFrom() != null && filter.getStartTo() != null
+                && filter.getStartTo().isBefore(filter.getStartFrom())) {
+            throw new IllegalArgumentException("startTo must not be before startFrom");
+        }
+        if (filter.getMinImpact() != null && filter.getMaxImpact() != null
+                && filter.getMaxImpact() < filter.getMinImpact()) {
+            throw new IllegalArgumentException("maxImpact must not be below minImpact");
+        }
+    }
+
+    /**
+     * Keeps the "lat,lng" string and the numeric columns in step. The string wins when present;
+     * otherwise the numeric pair, if given, is written back into it.
+     */
+    private static void applyCoordinates(Project project, String coordinates, Double latitude, Double longitude) {
+        if (coordinates != null && !coordinates.trim().isEmpty()) {
+            String[] parts = coordinates.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Coordinates must be in \"latitude,longitude\" format");
+            }
+            try {
+                latitude = Double.valueOf(parts[0].trim());
+                longitude = Double.valueOf(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Coordinates must be in \"latitude,longitude\" format");
+            }
+        } else if (latitude == null || longitude == null) {
+            project.setCoordinates(null);
+            project.setLatitude(null);
+            project.setLongitude(null);
+            return;
+        }
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Coordinates are out of range");
+        }
+        project.setLatitude(latitude);
+        project.setLongitude(longitude);
+        project.setCoordinates(latitude + "," + longitude);
+    }
+
+    // The request body carries the manager as {"id": ...}; load the real, active user
+    private User resolveManager(User manager) {
+        if (manager == null || manager.getId() == null) {
+            return null;
+        }
+        if (shardedUsers != null) {
+            // projects.manager_id references the primary users table, which sharded users never reach
+            throw new IllegalArgumentException("Project managers cannot be assigned while users are sharded");
+        }
+        return userRepository.findById(manager.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Manager not found"));
+    }
+}
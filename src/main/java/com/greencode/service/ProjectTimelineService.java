@@ -0,0 +1,142 @@
+package com.greencode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import com.greencode.event.ProjectChangedEvent;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.index.IntervalIndex;
+import com.greencode.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Timeline of active projects by date range. Start and end dates live in an in-memory
+ * {@link IntervalIndex}, loaded at startup and kept in sync with committed project writes
+ * (node-local, see {@link IndexLoadGate}), so "active between A and B" never scans projects.
+ * Projects without a start date are not on the timeline; a project without an end date is
+ * treated as still running.
+ */
+@Service
+public class ProjectTimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectTimelineService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final IntervalIndex index = new IntervalIndex();
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("greencode.projects.timeline.size", index, IntervalIndex::size)
+            .description("Projects held in the timeline interval index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        loadGate.load(() -> {
+            try (Stream<Object[]> rows = projectRepository.streamDateRanges()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    put((Long) row[0], (LocalDate) row[1], (LocalDate) row[2],
+                        (Project.ProjectCategory) row[3], (Project.ProjectStatus) row[4]);
+                }
+            }
+        });
+        log.info("Loaded {} projects into the timeline index", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        loadGate.apply(() -> apply(event));
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        ProjectDto after = event.getAfter();
+        if (after == null || after.getStartDate() == null) {
+            index.remove(event.getProjectId());
+        } else {
+            put(after.getId(), after.getStartDate(), after.getEndDate(), after.getCategory(), after.getStatus());
+        }
+    }
+
+    public void checkWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The to date must not be before the from date");
+        }
+    }
+
+    /**
+     * Writes every project active at some point between {@code from} and {@code to} (inclusive)
+     * as NDJSON, ordered by start date. Ids are taken from the index a batch at a time and each
+     * batch is read in its own short query, so no transaction stays open while the client reads.
+     */
+    public void streamTimeline(LocalDate from, LocalDate to, Project.ProjectCategory category,
+                               Project.ProjectStatus status, OutputStream out) throws IOException {
+        checkWindow(from, to);
+        IntPredicate groups = ProjectGroups.matching(category, status);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long afterStart = Long.MIN_VALUE;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<IntervalIndex.Interval> batch = index.overlapping(from.toEpochDay(), to.toEpochDay(), groups,
+                afterStart, afterId, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (ProjectDto project : projectRepository.hydrate(
+                    batch.stream().map(IntervalIndex.Interval::getId).toList())) {
+                writer.write(objectMapper.writeValueAsString(project));
+                writer.write('\n');
+            }
+            writer.flush();
+            IntervalIndex.Interval last = batch.get(batch.size() - 1);
+            afterStart = last.getStart();
+            afterId = last.getId();
+        }
+        writer.flush();
+    }
+
+    private void put(long id, LocalDate startDate, LocalDate endDate, Project.ProjectCategory category,
+                     Project.ProjectStatus status) {
+        long start = startDate.toEpochDay();
+        // An end date before the start date is bad data; keep the project as a one-day interval
+        long end = endDate != null ? Math.max(start, endDate.toEpochDay()) : IntervalIndex.OPEN;
+        index.put(id, start, end, ProjectGroups.of(category, status));
+    }
+}
@@ -0,0 +1,240 @@
+package com.greencode.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.cache.SharedUserCacheTier;
+import com.greencode.index.BloomFilter;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over usernames and emails used to answer availability checks
+ * without a database round trip. Until the startup load has finished every lookup reports
+ * "maybe present" so callers fall through to the repository.
+ *
+ * A definite "absent" is only correct if the filters hold every node's writes, so each add is
+ * broadcast over the shared tier's invalidation channel, the one {@link com.greencode.cache.UserCache}
+ * already uses. Renames published there reach the filters too. Pub/sub drops messages while a
+ * node is disconnected, so the filters are also rebuilt from the database periodically. A name
+ * missed in between is reported available until the next rebuild. createUser/updateUser still
+ * rely on the database for uniqueness either way.
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    // The key names UserCache puts in its invalidation messages
+    private static final String USERNAME_KEY = "username:";
+    private static final String EMAIL_KEY = "email:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SharedUserCacheTier sharedTier;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    @Value("${greencode.users.bloom-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${greencode.users.bloom-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters filters;
+    // Filters being rebuilt; adds go to both so none are lost in the swap
+    private Filters rebuilding;
+    private volatile boolean ready;
+
+    private Counter usernameShortCircuits;
+    private Counter emailShortCircuits;
+
+    @PostConstruct
+    void init() {
+        filters = newFilters();
+        registerMetrics("username", current -> current.usernames);
+        registerMetrics("email", current -> current.emails);
+        usernameShortCircuits = Counter.builder("greencode.users.bloom.short_circuits")
+            .description("Availability checks answered without querying the database")
+            .tag("field", "username")
+            .register(meterRegistry);
+        emailShortCircuits = Counter.builder("greencode.users.bloom.short_circuits")
+            .description("Availability checks answered without querying the database")
+            .tag("field", "email")
+            .register(meterRegistry);
+
+        // Subscribe before loading, so adds made elsewhere during the load are not missed
+        sharedTier.onInvalidation(this::handleBroadcast);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long loaded = rebuild();
+        ready = true;
+        log.info("Loaded {} users into availability filters (expected fpp {})",
+            loaded, filters.usernames.expectedFalsePositiveRate());
+    }
+
+    @Scheduled(fixedDelayString = "${greencode.users.bloom-filter.reload-interval-ms:3600000}",
+        initialDelayString = "${greencode.users.bloom-filter.reload-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        if (!ready) {
+            return;
+        }
+        long loaded = rebuild();
+        log.debug("Reloaded {} users into availability filters", loaded);
+    }
+
+    /**
+     * Records a username and email on this node and broadcasts them to the others. Called when
+     * a user is saved; a rolled-back save only leaves a false positive behind, which is safe.
+     */
+    public void add(String username, String email) {
+        put(username, email);
+        try {
+            sharedTier.publishInvalidation(objectMapper.writeValueAsString(
+                List.of(USERNAME_KEY + username, EMAIL_KEY + email)));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not publish availability filter add: {}", e.getMessage());
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        if (ready && !current.usernames.mightContain(username)) {
+            usernameShortCircuits.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        if (ready && !current.emails.mightContain(email)) {
+            emailShortCircuits.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private long rebuild() {
+        Filters next = newFilters();
+        synchronized (this) {
+            rebuilding = next;
+        }
+        long loaded = 0;
+        try (Stream<Object[]> rows = shardedUsers != null
+                ? shardedUsers.streamUsernamesAndEmails()
+                : userRepository.streamAllUsernamesAndEmails()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                next.put((String) row[0], (String) row[1]);
+                loaded++;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = null;
+            }
+            throw e;
+        }
+        // Swap under the same lock as put, so an add cannot fall between the two filters
+        synchronized (this) {
+            filters = next;
+            rebuilding = null;
+        }
+        return loaded;
+    }
+
+    private synchronized void put(String username, String email) {
+        filters.put(username, email);
+        if (rebuilding != null) {
+            rebuilding.put(username, email);
+        }
+    }
+
+    // Invalidations carry the keys of renamed users as well as adds broadcast by other nodes
+    private void handleBroadcast(String message) {
+        List<String> keys;
+        try {
+            keys = objectMapper.readValue(message, new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed availability filter broadcast: {}", e.getMessage());
+            return;
+        }
+        for (String key : keys) {
+            if (key.startsWith(USERNAME_KEY)) {
+                put(key.substring(USERNAME_KEY.length()), null);
+            } else if (key.startsWith(EMAIL_KEY)) {
+                put(null, key.substring(EMAIL_KEY.length()));
+            }
+        }
+    }
+
+    private Filters newFilters() {
+        return new Filters(new BloomFilter(expectedInsertions, falsePositiveRate),
+            new BloomFilter(expectedInsertions, falsePositiveRate));
+    }
+
+    private void registerMetrics(String field, Function<Filters, BloomFilter> filter) {
+        Gauge.builder("greencode.users.bloom.false_positive_rate", this,
+                f -> filter.apply(f.filters).expectedFalsePositiveRate())
+            .description("Estimated false positive probability of the availability filter")
+            .tag("field", field)
+            .register(meterRegistry);
+        Gauge.builder("greencode.users.bloom.size_bits", this, f -> filter.apply(f.filters).bitSize())
+            .description("Size of the availability filter in bits")
+            .tag("field", field)
+            .register(meterRegistry);
+        Gauge.builder("greencode.users.bloom.bits_set", this, f -> filter.apply(f.filters).bitsSet())
+            .description("Number of bits set in the availability filter")
+            .tag("field", field)
+            .register(meterRegistry);
+    }
+
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+
+        private void put(String username, String email) {
+            if (username != null) {
+                usernames.put(username);
+            }
+            if (email != null) {
+                emails.put(email);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.greencode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.dto.UserDto;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class UserExportService {
+
+    // Rows per merged page when reading from the sharded store
+    private static final int SHARDED_PAGE_SIZE = 1000;
+
+    private static final String CSV_HEADER =
+        "id,username,email,first_name,last_name,role,is_enabled,created_at,updated_at";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    /**
+     * Writes every user to the given stream one row at a time. Rows are read as a DTO
+     * projection, so nothing enters the persistence context and the heap stays flat
+     * regardless of table size. With sharding enabled the rows come from the shards, a merged
+     * page at a time.
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<UserDto> users = shardedUsers != null
+                ? shardedUsers.streamActive(SHARDED_PAGE_SIZE)
+                : userRepository.streamAll()) {
+            Iterator<UserDto> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserDto row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, UserDto row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csv(row.getUsername()));
+        writer.write(',');
+        writer.write(csv(row.getEmail()));
+        writer.write(',');
+        writer.write(csv(row.getFirstName()));
+        writer.write(',');
+        writer.write(csv(row.getLastName()));
+        writer.write(',');
+        writer.write(row.getRole() != null ? row.getRole().name() : "");
+        writer.write(',');
+        writer.write(row.getIsEnabled() != null ? row.getIsEnabled().toString() : "");
+        writer.write(',');
+        writer.write(row.getCreatedAt() != null ? row.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+}
@@ -0,0 +1,180 @@
+package com.greencode.service;
+
+import com.greencode.entity.JobCheckpoint;
+import com.greencode.repository.JobCheckpointRepository;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves users that have been soft-deleted for longer than the retention period into
+ * users_archive. Work is done in small keyset-ordered chunks, each in its own short
+ * transaction, with a pause between chunks to cap the write rate. The last archived id is
+ * checkpointed with every chunk so an interrupted run resumes where it stopped.
+ *
+ * Does nothing while users are sharded: the archive table and the project manager check both
+ * live in the primary database, which then holds no users.
+ */
+@Component
+public class UserPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPurgeJob.class);
+
+    static final String JOB_NAME = "user-purge";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    @Value("${greencode.users.purge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${greencode.users.purge.retention:365d}")
+    private Duration retention;
+
+    @Value("${greencode.users.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${greencode.users.purge.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastArchivedId = new AtomicLong();
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter archivedRows;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        archivedRows = Counter.builder("greencode.users.purge.archived")
+            .description("Users moved to users_archive")
+            .register(meterRegistry);
+        chunkTimer = Timer.builder("greencode.users.purge.chunk")
+            .description("Time spent archiving one chunk, including its commit")
+            .register(meterRegistry);
+        Gauge.builder("greencode.users.purge.last_id", lastArchivedId, AtomicLong::get)
+            .description("Highest user id archived by the current or last run")
+            .register(meterRegistry);
+        Gauge.builder("greencode.users.purge.throughput", rowsPerSecond, AtomicLong::get)
+            .description("Rows per second achieved by the current or last run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${greencode.users.purge.cron:0 30 3 * * *}")
+    public void run() {
+        if (enabled && shardedUsers != null) {
+            log.warn("User purge is not supported while users are sharded; skipping");
+            return;
+        }
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+            ensureCheckpoint();
+            long started = System.nanoTime();
+            long archived = 0;
+            while (true) {
+                long chunkStarted = System.nanoTime();
+                Integer moved = chunkTimer.record(() -> transactionTemplate.execute(status -> archiveChunk(cutoff)));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                archived += moved;
+                archivedRows.increment(moved);
+                rowsPerSecond.set(archived * 1_000_000_000L / Math.max(1, System.nanoTime() - started));
+                throttle(moved, chunkStarted);
+            }
+            log.info("User purge archived {} users inactive since before {}", archived, cutoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("User purge interrupted; it will resume from user id {}", lastArchivedId.get());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Creates the checkpoint row when migration 007 has not seeded it. Runs in its own
+     * transaction: if another node inserts the row first, our insert fails on the primary key
+     * and that transaction is lost, but the row now exists, which is all that is needed.
+     */
+    private void ensureCheckpoint() {
+        if (checkpointRepository.existsById(JOB_NAME)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                status -> checkpointRepository.saveAndFlush(new JobCheckpoint(JOB_NAME)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Checkpoint for {} was created concurrently", JOB_NAME);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        // The row lock serializes chunks across nodes, so no chunk is archived twice
+        JobCheckpoint checkpoint = checkpointRepository.lockByJobName(JOB_NAME)
+            .orElseThrow(() -> new IllegalStateException("Checkpoint row for " + JOB_NAME + " is missing"));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = userRepository.findPurgeCandidates(cutoff, checkpoint.getLastId(), chunkSize);
+        if (ids.isEmpty()) {
+            // Pass complete: the next run starts again from the lowest id
+            checkpoint.setLastId(0L);
+            checkpoint.setUpdatedAt(now);
+            return 0;
+        }
+
+        userRepository.archiveByIds(ids, now);
+        userRepository.deleteByIds(ids);
+
+        Long lastId = ids.get(ids.size() - 1);
+        checkpoint.setLastId(lastId);
+        checkpoint.setUpdatedAt(now);
+        lastArchivedId.set(lastId);
+        return ids.size();
+    }
+
+    private void throttle(int rows, long chunkStarted) throws InterruptedException {
+        long minimumNanos = rows * 1_000_000_000L / Math.max(1, maxRowsPerSecond);
+        long remaining = minimumNanos - (System.nanoTime() - chunkStarted);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.greencode.service;
+
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import com.greencode.index.IndexLoadGate;
+import com.greencode.index.PrefixIndex;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead over active users, matching a prefix of the username, email, email local
+ * part, first name, last name or "first last". Loaded at startup and kept in sync by
+ * {@link UserService}; node-local, see {@link IndexLoadGate}. Until the startup load finishes,
+ * searches return nothing.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int SHARDED_PAGE_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    private final PrefixIndex<UserDto> index = new PrefixIndex<>();
+    private final IndexLoadGate loadGate = new IndexLoadGate();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("greencode.users.search.size", index, PrefixIndex::size)
+            .description("Active users held in the typeahead index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        // Both sources only return active users, so soft-deleted ones never get in
+        loadGate.load(() -> {
+            try (Stream<UserDto> users = shardedUsers != null
+                    ? shardedUsers.streamActive(SHARDED_PAGE_SIZE)
+                    : userRepository.streamAll()) {
+                users.forEach(this::put);
+            }
+            index.compact();
+        });
+        log.info("Loaded {} users into the typeahead index", index.size());
+    }
+
+    /**
+     * Indexes the user as saved; inside a transaction this waits until it has committed.
+     */
+    public void index(User user) {
+        UserDto dto = new UserDto(user);
+        afterCommit(() -> loadGate.apply(() -> put(dto)));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> loadGate.apply(() -> index.remove(id)));
+    }
+
+    public List<UserDto> search(String prefix, int limit) {
+        return index.search(normalize(prefix), limit);
+    }
+
+    private void put(UserDto user) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTerm(terms, user.getUsername());
+        addTerm(terms, user.getEmail());
+        if (user.getEmail() != null && user.getEmail().indexOf('@') > 0) {
+            addTerm(terms, user.getEmail().substring(0, user.getEmail().indexOf('@')));
+        }
+        addName(terms, user.getFirstName());
+        addName(terms, user.getLastName());
+        if (user.getFirstName() != null && user.getLastName() != null) {
+            addTerm(terms, user.getFirstName() + " " + user.getLastName());
+        }
+        index.put(user.getId(), terms, user);
+    }
+
+    // The whole name plus each of its words, so "ann" finds "Mary Ann"
+    private static void addName(Set<String> terms, String name) {
+        addTerm(terms, name);
+        if (name != null) {
+            for (String word : name.trim().split("[\\s-]+")) {
+                addTerm(terms, word);
+            }
+        }
+    }
+
+    private static void addTerm(Set<String> terms, String value) {
+        if (value != null) {
+            String term = normalize(value);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,39 +1,164 @@
 package com.greencode.service;
 
+import com.greencode.cache.UserCache;
+import com.greencode.dto.BulkCreateResult;
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.UserDto;
+import com.greencode.dto.UserPatchRequest;
 import com.greencode.entity.User;
+import com.greencode.exception.DuplicateUserException;
 import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
+/**
+ * Queries run in read-only transactions by default: Hibernate switches to FlushMode.MANUAL and
+ * loads entities without dirty-checking snapshots, and the JDBC connection is marked read-only
+ * so the driver (BEGIN READ ONLY on PostgreSQL) and pool can optimise or route it.
+ * Methods that write declare their own read-write transaction.
+ *
+ * With greencode.sharding.enabled, users live in the sharded store instead of the users table:
+ * lookups, listings, existence checks and writes all go through {@link ShardedUserRepository},
+ * as do the export and the startup loads of the availability filter and typeahead index. See
+ * that class for the features that are unavailable while users are sharded.
+ */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class UserService {
 
+    private static final int BULK_LOOKUP_CHUNK = 1000;
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     @Autowired
     private UserRepository userRepository;
 
+    // Only present when sharding is enabled
+    @Autowired(required = false)
+    private ShardedUserRepository shardedUsers;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private Pagination pagination;
+
+    @Autowired
+    private UserExistenceFilter userExistenceFilter;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${greencode.users.bulk.max-size:5000}")
+    private int maxBulkSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    public CursorPage<UserDto> getAllUsers(String cursor, Integer size) {
+        int pageSize = pagination.resolvePageSize(size);
+        if (shardedUsers != null) {
+            // Queries on the users table only see active rows, so the sharded listing matches that
+            return toPage(shardedUsers.findPage(Pagination.decodeCursor(cursor), pageSize + 1, true), pageSize);
+        }
+        // Fetch one extra row to learn whether another page exists without counting
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<UserDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = userRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = Pagination.decodeCursor(cursor);
+            rows = userRepository.findPageAfter(after.getCreatedAt(), after.getId(), limit);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    public CursorPage<UserDto> getActiveUsers(String cursor, Integer size) {
+        int pageSize = pagination.resolvePageSize(size);
+        if (shardedUsers != null) {
+            return toPage(shardedUsers.findPage(Pagination.decodeCursor(cursor), pageSize + 1, true), pageSize);
+        }
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<UserDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = userRepository.findActiveFirstPage(limit);
+        } else {
+            KeysetCursor after = Pagination.decodeCursor(cursor);
+            rows = userRepository.findActivePageAfter(after.getCreatedAt(), after.getId(), limit);
+        }
+        return toPage(rows, pageSize);
+    }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    private static CursorPage<UserDto> toPage(List<UserDto> rows, int pageSize) {
+        return Pagination.toPage(rows, pageSize, last -> new KeysetCursor(last.getCreatedAt(), last.getId()));
     }
 
-    public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+    public Optional<UserDto> getUserById(Long id) {
+        return userCache.getById(id,
+            () -> shardedUsers != null ? shardedUsers.findDtoById(id) : userRepository.findDtoById(id));
     }
 
-    public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+    public Optional<UserDto> getUserByUsername(String username) {
+        return userCache.getByUsername(username, () -> shardedUsers != null
+            ? shardedUsers.findDtoByUsername(username) : userRepository.findDtoByUsername(username));
     }
 
-    public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+    public Optional<UserDto> getUserByEmail(String email) {
+        return userCache.getByEmail(email, () -> shardedUsers != null
+            ? shardedUsers.findDtoByEmail(email) : userRepository.findDtoByEmail(email));
+    }
+
+    /**
+     * Typeahead for picking a user: up to {@code limit} active users with a username, email or
+     * name starting with the prefix, answered from memory.
+     */
+    public List<UserDto> searchUsers(String prefix, Integer limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Prefix must not be empty");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int resolved = limit == null ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        return userSearchIndex.search(prefix, resolved);
     }
 
     private void validateUserInput(User user, boolean requirePassword) {
@@ -51,33 +176,232 @@ public class UserService {
         }
     }
 
+    /**
+     * Hashes the password before the insert transaction opens, so the hashing time holds no
+     * pooled connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(User user) {
-        // Check if username or email already exists
         validateUserInput(user, true);
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
+
+        return inTransaction(() -> {
+            // Uniqueness is enforced by the table constraints (or the shard index) in the same round
+            // trip as the insert
+            User savedUser = shardedUsers != null ? toUser(shardedUsers.insert(user)) : saveUnique(user);
+            userExistenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
+            userSearchIndex.index(savedUser);
+            return savedUser;
+        });
+    }
+
+    /**
+     * Creates many users at once. Rows that fail validation or collide with an existing or
+     * earlier row are reported individually; the rest are hashed in parallel and inserted in
+     * JDBC batches. Hashing runs on the shared hashing pool before the insert transaction opens,
+     * so it holds no connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkCreateResult createUsers(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("At least one user is required");
+        }
+        if (users.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " users can be created per request");
+        }
+
+        BulkCreateResult result = new BulkCreateResult();
+        List<Integer> acceptedRows = new ArrayList<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = validationError(user);
+            if (error == null && batchUsernames.contains(user.getUsername())) {
+                error = "Duplicate username in request";
+            }
+            if (error == null && batchEmails.contains(user.getEmail())) {
+                error = "Duplicate email in request";
+            }
+            if (error != null) {
+                result.addFailure(i, user != null ? user.getUsername() : null, error);
+                continue;
+            }
+            batchUsernames.add(user.getUsername());
+            batchEmails.add(user.getEmail());
+            acceptedRows.add(i);
+        }
+
+        // One set-based lookup per chunk instead of two exists queries per row. The shard index
+        // reports duplicates row by row on insert instead
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (int from = 0; shardedUsers == null && from < acceptedRows.size(); from += BULK_LOOKUP_CHUNK) {
+            List<String> usernames = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            for (int row : acceptedRows.subList(from, Math.min(from + BULK_LOOKUP_CHUNK, acceptedRows.size()))) {
+                usernames.add(users.get(row).getUsername());
+                emails.add(users.get(row).getEmail());
+            }
+            for (Object[] existing : userRepository.findUsernamesAndEmailsIn(usernames, emails)) {
+                takenUsernames.add((String) existing[0]);
+                takenEmails.add((String) existing[1]);
+            }
+        }
+
+        List<User> toInsert = new ArrayList<>();
+        List<Integer> insertRows = new ArrayList<>();
+        for (int row : acceptedRows) {
+            User user = users.get(row);
+            if (takenUsernames.contains(user.getUsername())) {
+                result.addFailure(row, user.getUsername(), "Username already exists");
+            } else if (takenEmails.contains(user.getEmail())) {
+                result.addFailure(row, user.getUsername(), "Email already exists");
+            } else {
+                user.setId(null);
+                toInsert.add(user);
+                insertRows.add(row);
+            }
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+
+        List<String> hashes = passwordHashingService.encodeAll(toInsert.stream().map(User::getPassword).toList());
+        for (int i = 0; i < toInsert.size(); i++) {
+            toInsert.get(i).setPassword(hashes.get(i));
         }
 
-        // Encode password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        
-        return userRepository.save(user);
+        List<User> inserted = shardedUsers != null
+            ? insertSharded(toInsert, insertRows, result)
+            : insertChunks(toInsert, insertRows, result);
+
+        for (User user : inserted) {
+            userExistenceFilter.add(user.getUsername(), user.getEmail());
+            userSearchIndex.index(user);
+            result.addCreated(new UserDto(user));
+        }
+        return result;
+    }
+
+    /**
+     * Inserts in chunks, each committed on its own. A signup can still take a name between the
+     * pre-check and the insert, so a chunk that hits a unique constraint is retried row by row
+     * and only the rows that lost the race are reported.
+     */
+    private List<User> insertChunks(List<User> toInsert, List<Integer> insertRows, BulkCreateResult result) {
+        List<User> inserted = new ArrayList<>(toInsert.size());
+        for (int from = 0; from < toInsert.size(); from += BULK_LOOKUP_CHUNK) {
+            int to = Math.min(from + BULK_LOOKUP_CHUNK, toInsert.size());
+            List<User> chunk = toInsert.subList(from, to);
+            try {
+                insert(chunk);
+                inserted.addAll(chunk);
+            } catch (PersistenceException | DataIntegrityViolationException e) {
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                for (int i = from; i < to; i++) {
+                    User user = toInsert.get(i);
+                    // The rolled-back persist left an id behind; persist needs a transient entity
+                    user.setId(null);
+                    try {
+                        insert(List.of(user));
+                        inserted.add(user);
+                    } catch (PersistenceException | DataIntegrityViolationException rowError) {
+                        if (!isConstraintViolation(rowError)) {
+                            throw rowError;
+                        }
+                        result.addFailure(insertRows.get(i), user.getUsername(), duplicateMessage(rowError));
+                    }
+                }
+            }
+        }
+        return inserted;
     }
 
+    private List<User> insertSharded(List<User> toInsert, List<Integer> insertRows, BulkCreateResult result) {
+        List<User> inserted = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            User user = toInsert.get(i);
+            try {
+                inserted.add(toUser(shardedUsers.insert(user)));
+            } catch (DuplicateUserException e) {
+                result.addFailure(insertRows.get(i), user.getUsername(), e.getMessage());
+            }
+        }
+        return inserted;
+    }
+
+    private void insert(List<User> users) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < users.size(); i++) {
+                entityManager.persist(users.get(i));
+                if ((i + 1) % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static boolean isConstraintViolation(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String duplicateMessage(RuntimeException e) {
+        String constraint = violatedConstraint(e);
+        if (constraint != null) {
+            String normalized = constraint.toLowerCase(Locale.ROOT);
+            if (normalized.contains(User.USERNAME_CONSTRAINT)) {
+                return "Username already exists";
+            }
+            if (normalized.contains(User.EMAIL_CONSTRAINT)) {
+                return "Email already exists";
+            }
+        }
+        return "Violates a database constraint";
+    }
+
+    private String validationError(User user) {
+        try {
+            validateUserInput(user, true);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<User> violation = violations.iterator().next();
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the user's fields, and the password when one is given. A new password is hashed
+     * before the transaction opens.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User updateUser(Long id, User userDetails) {
         validateUserInput(userDetails, false);
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        String passwordHash = userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()
+            ? passwordHashingService.encode(userDetails.getPassword())
+            : null;
+        return inTransaction(() -> applyUpdate(id, userDetails, passwordHash));
+    }
 
-        // Check if username or email already exists (excluding current user)
-        if (userRepository.existsByUsernameOrEmailExcludingId(
-                userDetails.getUsername(), userDetails.getEmail(), id)) {
-            throw new RuntimeException("Username or email already exists");
-        }
+    private User applyUpdate(Long id, User userDetails, String passwordHash) {
+        User user = loadUser(id);
 
+        String previousUsername = user.getUsername();
+        String previousEmail = user.getEmail();
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
         user.setFirstName(userDetails.getFirstName());
@@ -86,26 +410,196 @@ public class UserService {
         user.setIsEnabled(userDetails.getIsEnabled());
 
         // Only update password if provided
-        if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+        if (passwordHash != null) {
+            user.setPassword(passwordHash);
         }
 
-        return userRepository.save(user);
+        User savedUser = shardedUsers != null ? saveSharded(user) : saveUnique(user);
+        userExistenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
+        userSearchIndex.index(savedUser);
+        userCache.invalidate(savedUser, previousUsername, previousEmail);
+        return savedUser;
     }
 
-    public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
+    /**
+     * Applies only the properties present in the request. Combined with {@code @DynamicUpdate}
+     * the UPDATE touches only columns whose value actually changed, and the constraint-backed
+     * uniqueness path is used only when the username or email changed. A new password is
+     * hashed before the transaction opens.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User patchUser(Long id, UserPatchRequest patch) {
+        String passwordHash = patch.getPassword() != null && !patch.getPassword().isEmpty()
+            ? passwordHashingService.encode(patch.getPassword())
+            : null;
+        return inTransaction(() -> applyPatch(id, patch, passwordHash));
+    }
+
+    private User applyPatch(Long id, UserPatchRequest patch, String passwordHash) {
+        User user = loadUser(id);
+
+        String previousUsername = user.getUsername();
+        String previousEmail = user.getEmail();
+        boolean changed = false;
+
+        if (patch.has("username")) {
+            if (patch.getUsername() == null || patch.getUsername().trim().isEmpty()) {
+                throw new IllegalArgumentException("Username must not be empty");
+            }
+            if (!patch.getUsername().equals(user.getUsername())) {
+                user.setUsername(patch.getUsername());
+                changed = true;
+            }
+        }
+        if (patch.has("email")) {
+            if (patch.getEmail() == null || patch.getEmail().trim().isEmpty()) {
+                throw new IllegalArgumentException("Email must not be empty");
+            }
+            if (!patch.getEmail().equals(user.getEmail())) {
+                user.setEmail(patch.getEmail());
+                changed = true;
+            }
+        }
+        if (patch.has("firstName") && !Objects.equals(patch.getFirstName(), user.getFirstName())) {
+            user.setFirstName(patch.getFirstName());
+            changed = true;
+        }
+        if (patch.has("lastName") && !Objects.equals(patch.getLastName(), user.getLastName())) {
+            user.setLastName(patch.getLastName());
+            changed = true;
+        }
+        if (patch.has("role") && patch.getRole() != null && patch.getRole() != user.getRole()) {
+            user.setRole(patch.getRole());
+            changed = true;
+        }
+        if (patch.has("isEnabled") && patch.getIsEnabled() != null
+                && !patch.getIsEnabled().equals(user.getIsEnabled())) {
+            user.setIsEnabled(patch.getIsEnabled());
+            changed = true;
+        }
+        if (passwordHash != null) {
+            user.setPassword(passwordHash);
+            changed = true;
+        }
+
+        if (!changed) {
+            return user;
+        }
+
+        boolean identityChanged = !user.getUsername().equals(previousUsername)
+            || !user.getEmail().equals(previousEmail);
+        User savedUser;
+        if (shardedUsers != null) {
+            savedUser = saveSharded(user);
+        } else if (identityChanged) {
+            savedUser = saveUnique(user);
+        } else {
+            savedUser = userRepository.save(user);
+        }
+        if (identityChanged) {
+            userExistenceFilter.add(savedUser.getUsername(), savedUser.getEmail());
+        }
+        userSearchIndex.index(savedUser);
+        userCache.invalidate(savedUser, previousUsername, previousEmail);
+        return savedUser;
+    }
+
+    // A read-write transaction for the persistence step of a method that did slow work first
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    /**
+     * The managed entity, or with sharding a detached copy of the sharded row whose password is
+     * null unless the caller sets a new hash.
+     */
+    private User loadUser(Long id) {
+        Optional<User> user = shardedUsers != null
+            ? shardedUsers.findDtoById(id).map(UserService::toUser)
+            : userRepository.findById(id);
+        return user.orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private User saveSharded(User user) {
+        return shardedUsers.update(user.getId(), user, user.getPassword())
+            .map(UserService::toUser)
             .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        user.setIsActive(false);
-        userRepository.save(user);
+    }
+
+    private static User toUser(UserDto dto) {
+        User user = new User(dto.getUsername(), dto.getEmail(), null);
+        user.setId(dto.getId());
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setRole(dto.getRole());
+        user.setIsEnabled(dto.getIsEnabled());
+        user.setCreatedAt(dto.getCreatedAt());
+        user.setUpdatedAt(dto.getUpdatedAt());
+        return user;
+    }
+
+    /**
+     * Saves and flushes so a unique constraint violation surfaces here, then maps the violated
+     * constraint to the field that is taken.
+     */
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = violatedConstraint(e);
+            if (constraint != null) {
+                String normalized = constraint.toLowerCase(Locale.ROOT);
+                if (normalized.contains(User.USERNAME_CONSTRAINT)) {
+                    throw new DuplicateUserException("username", "Username already exists");
+                }
+                if (normalized.contains(User.EMAIL_CONSTRAINT)) {
+                    throw new DuplicateUserException("email", "Email already exists");
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static String violatedConstraint(RuntimeException e) {
+        Throwable mostSpecific = e;
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+            mostSpecific = cause;
+        }
+        // Fall back to the driver message, which names the constraint on both H2 and PostgreSQL
+        return mostSpecific.getMessage();
+    }
+
+    @Transactional
+    public void deleteUser(Long id) {
+        User user = loadUser(id);
+
+        if (shardedUsers != null) {
+            shardedUsers.softDelete(id);
+        } else {
+            user.setIsActive(false);
+            userRepository.save(user);
+        }
+        userSearchIndex.remove(user.getId());
+        userCache.invalidate(user, user.getUsername(), user.getEmail());
     }
 
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        // A negative from the filter is definite; only "maybe" answers reach the database
+        if (!userExistenceFilter.mightContainUsername(username)) {
+            return false;
+        }
+        return shardedUsers != null
+            ? shardedUsers.existsByUsername(username)
+            : userRepository.existsByUsername(username);
     }
 
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        if (!userExistenceFilter.mightContainEmail(email)) {
+            return false;
+        }
+        return shardedUsers != null ? shardedUsers.existsByEmail(email) : userRepository.existsByEmail(email);
     }
 }
@@ -0,0 +1,39 @@
+package com.greencode.benchmark;
+
+import com.greencode.entity.User;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Seeds benchmark users named {@code <prefix><n>} with email {@code <prefix><n>@example.com},
+ * one transaction per chunk so the persistence context stays small.
+ */
+final class BenchmarkUsers {
+
+    static final int CHUNK = 1_000;
+
+    private BenchmarkUsers() {
+    }
+
+    static void seed(TransactionTemplate transaction, EntityManager entityManager, String prefix, int count) {
+        seed(transaction, entityManager, prefix, count, n -> true);
+    }
+
+    static void seed(TransactionTemplate transaction, EntityManager entityManager, String prefix, int count,
+                     IntPredicate active) {
+        for (int offset = 0; offset < count; offset += CHUNK) {
+            int from = offset;
+            transaction.executeWithoutResult(status -> {
+                for (int i = from; i < Math.min(from + CHUNK, count); i++) {
+                    User user = new User(prefix + i, prefix + i + "@example.com", "not-a-real-hash");
+                    user.setIsActive(active.test(i));
+                    entityManager.persist(user);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
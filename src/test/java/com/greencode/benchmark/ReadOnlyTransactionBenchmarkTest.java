@@ -0,0 +1,86 @@
+package com.greencode.benchmark;
+
+import com.greencode.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request CPU time and allocation of a username lookup run in a read-write transaction
+ * versus a read-only one. Excluded from the default build; run with
+ *
+ *   mvn test -Pbenchmarks -Dtest=ReadOnlyTransactionBenchmarkTest
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@Tag("benchmark")
+class ReadOnlyTransactionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadOnlyTransactionBenchmarkTest.class);
+
+    private static final int USERS = 10_000;
+    private static final int WARMUP_REQUESTS = 5_000;
+    private static final int MEASURED_REQUESTS = 50_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void readWriteVersusReadOnlyLookups() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        BenchmarkUsers.seed(readWrite, entityManager, "tx", USERS);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        measure("read-write", readWrite);
+        measure("read-only", readOnly);
+    }
+
+    private void measure(String name, TransactionTemplate transaction) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            lookup(transaction);
+        }
+
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            lookup(transaction);
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info("{}: {} ns CPU and {} bytes allocated per lookup",
+            name, cpu / MEASURED_REQUESTS, allocated / MEASURED_REQUESTS);
+    }
+
+    private void lookup(TransactionTemplate transaction) {
+        String username = "tx" + ThreadLocalRandom.current().nextInt(USERS);
+        Boolean found = transaction.execute(status -> userRepository.findByUsername(username).isPresent());
+        assertTrue(found, "user " + username + " not found");
+    }
+}
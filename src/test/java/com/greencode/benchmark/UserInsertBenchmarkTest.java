@@ -0,0 +1,56 @@
+package com.greencode.benchmark;
+
+import com.greencode.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures JPA insert throughput for 100k users. Excluded from the default build; run with
+ *
+ *   mvn test -Pbenchmarks -Dtest=UserInsertBenchmarkTest
+ *
+ * Point spring.datasource at PostgreSQL for numbers that mean anything, and run it on the
+ * commit before the pooled sequence change to get the IDENTITY baseline.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@Tag("benchmark")
+class UserInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserInsertBenchmarkTest.class);
+
+    private static final int USERS = 100_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void insertThroughput() {
+        long before = userRepository.count();
+        long start = System.nanoTime();
+        BenchmarkUsers.seed(new TransactionTemplate(transactionManager), entityManager, "bench", USERS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(before + USERS, userRepository.count());
+        log.info("Inserted {} users in {}s ({} inserts/s)", USERS, String.format("%.2f", seconds),
+            Math.round(USERS / seconds));
+    }
+}
@@ -0,0 +1,79 @@
+package com.greencode.benchmark;
+
+import com.greencode.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures findByUsername/findByEmail latency once soft-deleted users outnumber active ones
+ * 10:1. Excluded from the default build; run with
+ *
+ *   mvn test -Pbenchmarks -Dtest=UserLookupBenchmarkTest
+ *
+ * H2 has no partial indexes; run against PostgreSQL with migration 003 applied (and without
+ * it, for comparison) to see their effect.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@Tag("benchmark")
+class UserLookupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLookupBenchmarkTest.class);
+
+    private static final int ACTIVE_USERS = 10_000;
+    private static final int INACTIVE_PER_ACTIVE = 10;
+    private static final int LOOKUPS = 20_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void lookupLatencyWithMostlyInactiveRows() {
+        int total = ACTIVE_USERS * (INACTIVE_PER_ACTIVE + 1);
+        BenchmarkUsers.seed(new TransactionTemplate(transactionManager), entityManager, "lookup", total,
+            i -> i % (INACTIVE_PER_ACTIVE + 1) == 0);
+
+        long[] byUsername = new long[LOOKUPS];
+        long[] byEmail = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int n = ThreadLocalRandom.current().nextInt(ACTIVE_USERS) * (INACTIVE_PER_ACTIVE + 1);
+            long start = System.nanoTime();
+            boolean found = userRepository.findByUsername("lookup" + n).isPresent();
+            byUsername[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            found &= userRepository.findByEmail("lookup" + n + "@example.com").isPresent();
+            byEmail[i] = System.nanoTime() - start;
+            assertTrue(found, "active user lookup" + n + " not found");
+        }
+        report("findByUsername", byUsername);
+        report("findByEmail", byEmail);
+    }
+
+    private static void report(String name, long[] nanos) {
+        Arrays.sort(nanos);
+        log.info("{} over {} lookups: p50 {} us, p99 {} us", name, nanos.length,
+            nanos[nanos.length / 2] / 1_000, nanos[(int) (nanos.length * 0.99)] / 1_000);
+    }
+}
@@ -0,0 +1,99 @@
+package com.greencode.benchmark;
+
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import com.greencode.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading a page of users as full entities against the UserDto projection used by
+ * the read endpoints: rows per second and bytes allocated per page. Excluded from the default
+ * build; run with
+ *
+ *   mvn test -Pbenchmarks -Dtest=UserReadBenchmarkTest
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@Tag("benchmark")
+class UserReadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserReadBenchmarkTest.class);
+
+    private static final int USERS = 20_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_PAGES = 2_000;
+    private static final int MEASURED_PAGES = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void entityVersusProjectionPages() {
+        BenchmarkUsers.seed(new TransactionTemplate(transactionManager), entityManager, "read", USERS);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<Integer> entityPage = () -> readOnly.execute(status -> entityManager
+            .createQuery("SELECT u FROM User u ORDER BY u.createdAt ASC, u.id ASC", User.class)
+            .setMaxResults(PAGE_SIZE)
+            .getResultList()
+            .size());
+        Supplier<Integer> projectionPage = () -> readOnly.execute(status -> {
+            List<UserDto> page = userRepository.findFirstPage(PageRequest.of(0, PAGE_SIZE));
+            return page.size();
+        });
+
+        assertEquals(PAGE_SIZE, entityPage.get());
+        assertEquals(PAGE_SIZE, projectionPage.get());
+
+        measure("entity", entityPage);
+        measure("projection", projectionPage);
+    }
+
+    private static void measure(String name, Supplier<Integer> page) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_PAGES; i++) {
+            page.get();
+        }
+
+        long rows = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_PAGES; i++) {
+            rows += page.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info("{}: {} rows/s, {} bytes allocated per page of {}",
+            name, Math.round(rows / seconds), allocated / MEASURED_PAGES, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,123 @@
+package com.greencode.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserCacheTest {
+
+    // One shared tier behind every cache in a test, like Redis behind several nodes
+    private final InMemoryUserCacheTier sharedTier = new InMemoryUserCacheTier();
+
+    @Test
+    void staleReloadFinishingAfterAnUpdateIsNotCached() {
+        UserCache cache = node(new SimpleMeterRegistry());
+
+        // The update's invalidation lands while the read is still holding the old row
+        Optional<UserDto> stale = cache.getById(1L, () -> {
+            cache.invalidate(user(1L, "fern.new"), "fern", "fern@example.org");
+            return Optional.of(dto(1L, "fern"));
+        });
+        assertEquals("fern", stale.get().getUsername());
+
+        assertEquals("fern.new", cache.getById(1L, () -> Optional.of(dto(1L, "fern.new"))).get().getUsername());
+    }
+
+    @Test
+    void updateCommittingAfterAReloadEvictsTheReloadedCopy() {
+        UserCache cache = node(new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> pending;
+        try {
+            cache.invalidate(user(2L, "moss.new"), "moss", "moss@example.org");
+            pending = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // A read before the commit still sees, and caches, the old row
+        cache.getById(2L, () -> Optional.of(dto(2L, "moss")));
+        assertEquals("moss", cache.getById(2L, Optional::empty).get().getUsername());
+
+        pending.forEach(TransactionSynchronization::afterCommit);
+        assertEquals("moss.new", cache.getById(2L, () -> Optional.of(dto(2L, "moss.new"))).get().getUsername());
+    }
+
+    @Test
+    void deleteLeavesATombstoneThatRefusesRefills() {
+        UserCache cache = node(new SimpleMeterRegistry());
+        cache.getById(3L, () -> Optional.of(dto(3L, "sedge")));
+
+        cache.invalidate(user(3L, "sedge"), null, null);
+
+        // A read that loaded the row just before the delete must not bring it back
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(3L, () -> {
+            loads.incrementAndGet();
+            return Optional.of(dto(3L, "sedge"));
+        });
+        assertEquals(Optional.empty(), cache.getById(3L, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }));
+        assertEquals(Optional.empty(), node(new SimpleMeterRegistry()).getByUsername("sedge", Optional::empty));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void eachLookupCountsOnceAgainstTheSharedTier() {
+        node(new SimpleMeterRegistry()).getByUsername("reed", () -> Optional.of(dto(4L, "reed")));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        node(registry).getByUsername("reed", Optional::empty);
+        assertEquals(1.0, count(registry, "hit"));
+        assertEquals(0.0, count(registry, "miss"));
+
+        // The pointer is shared but the user has expired: one miss, not a hit and a miss
+        sharedTier.evict(List.of("greencode:users:v2:id:4"));
+        registry = new SimpleMeterRegistry();
+        node(registry).getByUsername("reed", () -> Optional.of(dto(4L, "reed")));
+        assertEquals(0.0, count(registry, "hit"));
+        assertEquals(1.0, count(registry, "miss"));
+    }
+
+    // A cache with its own near tiers over the shared one, as on a separate node
+    private UserCache node(SimpleMeterRegistry registry) {
+        UserCache cache = new UserCache();
+        ReflectionTestUtils.setField(cache, "sharedTier", sharedTier);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        ReflectionTestUtils.setField(cache, "localMaximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "localTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "sharedTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "tombstoneTtl", Duration.ofSeconds(10));
+        cache.init();
+        return cache;
+    }
+
+    private static double count(SimpleMeterRegistry registry, String result) {
+        return registry.get("greencode.users.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User(username, username + "@example.org", "unused");
+        user.setId(id);
+        return user;
+    }
+
+    private static UserDto dto(Long id, String username) {
+        return new UserDto(user(id, username));
+    }
+}
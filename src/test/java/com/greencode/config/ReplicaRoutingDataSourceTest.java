@@ -0,0 +1,76 @@
+package com.greencode.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(1);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.PRIMARY, h2("routing-primary"),
+            ReplicaRoutingDataSource.REPLICA_PREFIX + "0", h2("routing-replica")));
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ReadYourWritesContext.end();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(urlOf(routing).startsWith("jdbc:h2:mem:routing-replica"));
+    }
+
+    @Test
+    void writesGoToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertTrue(urlOf(routing).startsWith("jdbc:h2:mem:routing-primary"));
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestStayOnPrimary() throws SQLException {
+        ReadYourWritesContext.begin(false);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        urlOf(routing);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(urlOf(routing).startsWith("jdbc:h2:mem:routing-primary"));
+    }
+
+    @Test
+    void pinnedClientsReadFromPrimary() throws SQLException {
+        ReadYourWritesContext.begin(true);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(urlOf(routing).startsWith("jdbc:h2:mem:routing-primary"));
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,84 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterIndexTest {
+
+    @Test
+    void everyZoomAccountsForEveryPoint() {
+        ClusterIndex index = new ClusterIndex(8, 3);
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            index.put(i, random.nextDouble() * 160 - 80, random.nextDouble() * 360 - 180, i % 3);
+        }
+
+        for (int z = 0; z <= 3; z++) {
+            int total = 0;
+            for (int x = 0; x < (1 << z); x++) {
+                for (int y = 0; y < (1 << z); y++) {
+                    for (ClusterIndex.Feature feature : index.tile(z, x, y, group -> true)) {
+                        total += feature.getCount();
+                    }
+                }
+            }
+            assertEquals(5_000, total);
+        }
+    }
+
+    @Test
+    void groupFilterRestrictsClusters() {
+        ClusterIndex index = new ClusterIndex(4, 2);
+        index.put(1, 10, 10, 0);
+        index.put(2, 10.001, 10.001, 0);
+        index.put(3, 10.002, 10.002, 1);
+
+        List<ClusterIndex.Feature> all = index.tile(0, 0, 0, group -> true);
+        assertEquals(1, all.size());
+        assertEquals(3, all.get(0).getCount());
+
+        List<ClusterIndex.Feature> onlyOne = index.tile(0, 0, 0, group -> group == 1);
+        assertEquals(1, onlyOne.size());
+        assertEquals(Long.valueOf(3), onlyOne.get(0).getProjectId());
+    }
+
+    @Test
+    void removalsAndMovesAreReflected() {
+        ClusterIndex index = new ClusterIndex(4, 1);
+        index.put(1, 0, 0, 0);
+        index.put(2, 0.0001, 0.0001, 0);
+        index.remove(2);
+
+        List<ClusterIndex.Feature> features = index.tile(0, 0, 0, group -> true);
+        assertEquals(1, features.size());
+        assertEquals(Long.valueOf(1), features.get(0).getProjectId());
+
+        index.put(1, 60, 100, 0);
+        assertEquals(1, index.size());
+        int total = 0;
+        for (ClusterIndex.Feature feature : index.tile(1, 1, 0, group -> true)) {
+            total += feature.getCount();
+        }
+        assertEquals(1, total);
+    }
+
+    @Test
+    void zoomsBeyondTheHierarchyListPoints() {
+        ClusterIndex index = new ClusterIndex(2, 1);
+        index.put(1, 51.5007, -0.1246, 0);
+        index.put(2, 51.5008, -0.1245, 0);
+
+        int z = 18;
+        int x = (int) ((-0.1246 + 180) / 360 * (1 << z));
+        double sin = Math.sin(Math.toRadians(51.5007));
+        int y = (int) ((0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * (1 << z));
+        List<ClusterIndex.Feature> features = index.tile(z, x, y, group -> true);
+        assertTrue(features.stream().allMatch(feature -> feature.getCount() == 1));
+        assertTrue(features.stream().anyMatch(feature -> feature.getProjectId() == 1L));
+    }
+}
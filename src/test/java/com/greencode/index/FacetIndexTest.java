@@ -0,0 +1,108 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private static final String[][] VALUES = {
+        {"A", "B", "C", "D"},
+        {"x", "y"},
+        {"1", "2", "3", "4", "5"}
+    };
+
+    @Test
+    void searchAndCountsMatchBruteForce() {
+        FacetIndex index = new FacetIndex(3);
+        Map<Integer, String[]> expected = new TreeMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 30_000; i++) {
+            int id = random.nextInt(10_000);
+            if (random.nextInt(6) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                String[] values = new String[3];
+                for (int facet = 0; facet < 3; facet++) {
+                    // Occasionally leave a facet unset
+                    if (random.nextInt(10) > 0) {
+                        values[facet] = VALUES[facet][random.nextInt(VALUES[facet].length)];
+                    }
+                }
+                index.put(id, values);
+                expected.put(id, values);
+            }
+        }
+
+        for (int query = 0; query < 50; query++) {
+            String[] selected = new String[3];
+            for (int facet = 0; facet < 3; facet++) {
+                if (random.nextBoolean()) {
+                    selected[facet] = VALUES[facet][random.nextInt(VALUES[facet].length)];
+                }
+            }
+
+            FacetIndex.Result result = index.search(selected, -1, 50);
+
+            List<Integer> matches = new ArrayList<>();
+            for (Map.Entry<Integer, String[]> entry : expected.entrySet()) {
+                if (matches(entry.getValue(), selected, -1)) {
+                    matches.add(entry.getKey());
+                }
+            }
+            assertEquals(matches.size(), result.getTotal());
+            int[] ids = result.getIds();
+            assertEquals(Math.min(50, matches.size()), ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals(matches.get(i).intValue(), ids[i]);
+            }
+
+            for (int facet = 0; facet < 3; facet++) {
+                Map<String, Integer> counts = new HashMap<>();
+                for (String[] values : expected.values()) {
+                    if (values[facet] != null && matches(values, selected, facet)) {
+                        counts.merge(values[facet], 1, Integer::sum);
+                    }
+                }
+                for (String value : VALUES[facet]) {
+                    assertEquals(counts.getOrDefault(value, 0),
+                        result.getCounts().get(facet).getOrDefault(value, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    void pagesContinueAfterTheLastId() {
+        FacetIndex index = new FacetIndex(1);
+        for (int id = 0; id < 1_000; id++) {
+            index.put(id, new String[] {id % 2 == 0 ? "even" : "odd"});
+        }
+
+        FacetIndex.Result first = index.search(new String[] {"odd"}, -1, 10);
+        FacetIndex.Result second = index.search(new String[] {"odd"}, first.getIds()[9], 10);
+
+        assertEquals(500, first.getTotal());
+        assertEquals(19, first.getIds()[9]);
+        assertEquals(21, second.getIds()[0]);
+        assertEquals(Integer.valueOf(500), first.getCounts().get(0).get("even"));
+    }
+
+    // True when the values pass every selection except the one on the skipped facet
+    private static boolean matches(String[] values, String[] selected, int skip) {
+        for (int facet = 0; facet < selected.length; facet++) {
+            if (facet != skip && selected[facet] != null && !selected[facet].equals(values[facet])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
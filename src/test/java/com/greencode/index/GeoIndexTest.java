@@ -0,0 +1,76 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoIndexTest {
+
+    @Test
+    void radiusQueryMatchesBruteForceNearestFirst() {
+        GeoIndex index = new GeoIndex();
+        Random random = new Random(42);
+        double[][] points = new double[20_000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+            index.put(i, points[i][0], points[i][1]);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            double radius = random.nextDouble() * 1_500_000;
+
+            int expected = 0;
+            for (double[] point : points) {
+                if (GeoIndex.distanceMeters(latitude, longitude, point[0], point[1]) <= radius) {
+                    expected++;
+                }
+            }
+            List<GeoIndex.Hit> hits = index.withinRadius(latitude, longitude, radius, Integer.MAX_VALUE);
+            assertEquals(expected, hits.size());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).getDistanceMeters() <= hits.get(i).getDistanceMeters());
+            }
+        }
+    }
+
+    @Test
+    void boxQueryHandlesTheAntimeridian() {
+        GeoIndex index = new GeoIndex();
+        index.put(1, 0, 179.5);
+        index.put(2, 0, -179.5);
+        index.put(3, 0, 0);
+
+        List<GeoIndex.Hit> hits = index.withinBox(-1, 179, 1, -179, 0, 179.5, 10);
+        assertEquals(2, hits.size());
+        assertEquals(1, hits.get(0).getId());
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        GeoIndex index = new GeoIndex();
+        index.put(1, 51.5, -0.12);
+        index.put(1, 40.7, -74.0);
+        assertTrue(index.withinRadius(51.5, -0.12, 10_000, 10).isEmpty());
+        assertEquals(1, index.withinRadius(40.7, -74.0, 10_000, 10).size());
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertTrue(index.withinRadius(40.7, -74.0, 10_000, 10).isEmpty());
+    }
+
+    @Test
+    void limitKeepsTheNearest() {
+        GeoIndex index = new GeoIndex();
+        for (int i = 0; i < 100; i++) {
+            index.put(i, 0, i * 0.01);
+        }
+        List<GeoIndex.Hit> hits = index.withinRadius(0, 0, 1_000_000, 5);
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), hits.stream().map(GeoIndex.Hit::getId).toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexLoadGateTest {
+
+    @Test
+    void changesDuringTheLoadWinOverTheSnapshot() {
+        IndexLoadGate gate = new IndexLoadGate();
+        Map<Long, String> index = new HashMap<>();
+
+        gate.apply(() -> index.put(1L, "renamed before the load"));
+        gate.load(() -> {
+            // A change committed while the snapshot is being read
+            gate.apply(() -> index.put(2L, "renamed during the load"));
+            gate.apply(() -> index.remove(3L));
+            assertTrue(index.isEmpty());
+            index.put(1L, "old");
+            index.put(2L, "old");
+            index.put(3L, "old");
+        });
+
+        assertEquals(Map.of(1L, "renamed before the load", 2L, "renamed during the load"), index);
+        assertTrue(gate.isLoaded());
+    }
+
+    @Test
+    void changesAfterTheLoadApplyImmediately() {
+        IndexLoadGate gate = new IndexLoadGate();
+        List<String> applied = new ArrayList<>();
+        gate.load(() -> applied.add("load"));
+
+        gate.apply(() -> applied.add("change"));
+        assertEquals(List.of("load", "change"), applied);
+        assertThrows(IllegalStateException.class, () -> gate.load(() -> { }));
+    }
+
+    @Test
+    void changesQueuedDuringTheReplayKeepTheirOrder() throws Exception {
+        IndexLoadGate gate = new IndexLoadGate();
+        List<Integer> applied = new ArrayList<>();
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+
+        gate.apply(() -> {
+            applied.add(1);
+            replaying.countDown();
+            await(queued);
+        });
+        Thread writer = new Thread(() -> {
+            await(replaying);
+            gate.apply(() -> applied.add(2));
+            queued.countDown();
+        });
+        writer.start();
+        gate.load(() -> { });
+        writer.join();
+
+        assertEquals(List.of(1, 2), applied);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalIndexTest {
+
+    @Test
+    void overlapQueriesMatchBruteForceInStartOrder() {
+        IntervalIndex index = new IntervalIndex();
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(4_000);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                long start = random.nextInt(10_000);
+                long end = random.nextInt(10) == 0 ? IntervalIndex.OPEN : start + random.nextInt(500);
+                int group = random.nextInt(3);
+                index.put(id, start, end, group);
+                expected.put(id, new long[] {start, end, group});
+            }
+        }
+        assertEquals(expected.size(), index.size());
+
+        for (int query = 0; query < 200; query++) {
+            long from = random.nextInt(11_000);
+            long to = from + random.nextInt(300);
+            int wanted = random.nextInt(3);
+
+            List<long[]> matches = new ArrayList<>();
+            for (Map.Entry<Long, long[]> entry : expected.entrySet()) {
+                long[] interval = entry.getValue();
+                if (interval[0] <= to && interval[1] >= from && interval[2] != wanted) {
+                    matches.add(new long[] {entry.getKey(), interval[0]});
+                }
+            }
+            matches.sort(Comparator.comparingLong((long[] m) -> m[1]).thenComparingLong(m -> m[0]));
+
+            List<IntervalIndex.Interval> hits = index.overlapping(from, to, group -> group != wanted,
+                Long.MIN_VALUE, Long.MIN_VALUE, Integer.MAX_VALUE);
+            assertEquals(matches.size(), hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(matches.get(i)[0], hits.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void pagesResumeAfterTheLastInterval() {
+        IntervalIndex index = new IntervalIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, id % 10, IntervalIndex.OPEN, 0);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        long afterStart = Long.MIN_VALUE;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<IntervalIndex.Interval> page = index.overlapping(0, 100, group -> true, afterStart, afterId, 7);
+            if (page.isEmpty()) {
+                break;
+            }
+            assertTrue(page.size() <= 7);
+            for (IntervalIndex.Interval interval : page) {
+                seen.add(interval.getId());
+            }
+            IntervalIndex.Interval last = page.get(page.size() - 1);
+            afterStart = last.getStart();
+            afterId = last.getId();
+        }
+
+        assertEquals(100, seen.size());
+        assertEquals(Long.valueOf(10), seen.get(0));
+        assertEquals(Long.valueOf(99), seen.get(seen.size() - 1));
+    }
+
+    @Test
+    void movedIntervalsAreFoundAtTheirNewDates() {
+        IntervalIndex index = new IntervalIndex();
+        index.put(1, 10, 20, 0);
+        index.put(1, 50, 60, 0);
+
+        assertEquals(0, index.overlapping(10, 20, group -> true, Long.MIN_VALUE, Long.MIN_VALUE, 10).size());
+        assertEquals(1, index.overlapping(55, 55, group -> true, Long.MIN_VALUE, Long.MIN_VALUE, 10).size());
+        assertThrows(IllegalArgumentException.class, () -> index.put(2, 5, 4, 0));
+    }
+}
@@ -0,0 +1,151 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void exactTermsComeBeforeLongerCompletions() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        index.put(1, List.of("annabel"), "annabel");
+        index.put(2, List.of("ann"), "ann");
+        index.put(3, List.of("anna", "smith"), "anna");
+        index.put(4, List.of("bob"), "bob");
+
+        assertEquals(List.of("ann", "anna", "annabel"), index.search("ann", 10));
+        assertEquals(List.of("ann", "anna"), index.search("ann", 2));
+        assertEquals(List.of("anna"), index.search("sm", 10));
+        assertTrue(index.search("c", 10).isEmpty());
+
+        index.compact();
+        assertEquals(List.of("ann", "anna", "annabel"), index.search("ann", 10));
+    }
+
+    @Test
+    void entryMatchingSeveralTermsIsReturnedOnce() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        index.put(1, List.of("jo", "john", "jones"), "john jones");
+        index.compact();
+        index.put(2, List.of("joe"), "joe");
+
+        assertEquals(List.of("john jones", "joe"), index.search("jo", 10));
+    }
+
+    @Test
+    void putReplacesAndRemoveDrops() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        index.put(1, List.of("alice"), "alice");
+        index.compact();
+        index.put(1, List.of("alicia"), "alicia");
+
+        assertEquals(List.of("alicia"), index.search("ali", 10));
+        assertTrue(index.search("alice", 10).isEmpty());
+
+        index.remove(1);
+        assertTrue(index.search("ali", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void rejectsNullPayload() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, List.of("a"), null));
+    }
+
+    @Test
+    void searchMatchesBruteForceAcrossCompactions() {
+        // A low threshold forces frequent merges and slot renumbering
+        PrefixIndex<Long> index = new PrefixIndex<>(64);
+        Map<Long, List<String>> terms = new HashMap<>();
+        Map<Long, Integer> order = new HashMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                terms.remove(id);
+                order.remove(id);
+            } else {
+                List<String> entryTerms = new ArrayList<>();
+                for (int t = random.nextInt(4); t >= 0; t--) {
+                    entryTerms.add(randomTerm(random));
+                }
+                index.put(id, entryTerms, id);
+                terms.put(id, entryTerms);
+                order.put(id, i);
+            }
+        }
+        assertEquals(terms.size(), index.size());
+
+        for (int query = 0; query < 300; query++) {
+            String sample = randomTerm(random);
+            String prefix = sample.substring(0, Math.min(sample.length(), 1 + random.nextInt(2)));
+            int limit = 1 + random.nextInt(40);
+            assertEquals(bruteForce(terms, order, prefix, limit), index.search(prefix, limit));
+        }
+    }
+
+    @Test
+    void searchesBetweenWritesMatchBruteForce() {
+        // No merges: every search sorts the pairs written since the previous one into the delta
+        PrefixIndex<Long> index = new PrefixIndex<>(1_000_000);
+        Map<Long, List<String>> terms = new HashMap<>();
+        Map<Long, Integer> order = new HashMap<>();
+        Random random = new Random(29);
+        for (int i = 0; i < 3_000; i++) {
+            long id = random.nextInt(500) * 1_000_003L;
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                terms.remove(id);
+                order.remove(id);
+            } else {
+                List<String> entryTerms = List.of(randomTerm(random), randomTerm(random));
+                index.put(id, entryTerms, id);
+                terms.put(id, entryTerms);
+                order.put(id, i);
+            }
+            if (i % 7 == 0) {
+                String prefix = randomTerm(random).substring(0, 1);
+                assertEquals(bruteForce(terms, order, prefix, 25), index.search(prefix, 25));
+            }
+        }
+        assertEquals(terms.size(), index.size());
+    }
+
+    // Ordered by the smallest matching term, then by when the entry was last written
+    private static List<Long> bruteForce(Map<Long, List<String>> terms, Map<Long, Integer> order, String prefix,
+                                         int limit) {
+        List<Long> expected = new ArrayList<>();
+        Map<Long, String> firstMatch = new HashMap<>();
+        for (Map.Entry<Long, List<String>> entry : terms.entrySet()) {
+            entry.getValue().stream()
+                .filter(term -> term.startsWith(prefix))
+                .min(Comparator.naturalOrder())
+                .ifPresent(term -> {
+                    expected.add(entry.getKey());
+                    firstMatch.put(entry.getKey(), term);
+                });
+        }
+        expected.sort(Comparator.comparing((Long id) -> firstMatch.get(id)).thenComparing(order::get));
+        return expected.subList(0, Math.min(limit, expected.size()));
+    }
+
+    private static String randomTerm(Random random) {
+        StringBuilder term = new StringBuilder();
+        for (int length = 1 + random.nextInt(5); length > 0; length--) {
+            term.append((char) ('a' + random.nextInt(4)));
+        }
+        return term.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankedSkipListTest {
+
+    @Test
+    void ranksAndTopKMatchASortedList() {
+        RankedSkipList list = new RankedSkipList();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                long score = random.nextInt(100);
+                list.put(id, score);
+                expected.put(id, score);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.comparing((Map.Entry<Long, Long> e) -> -e.getValue())
+            .thenComparing(Map.Entry::getKey));
+
+        assertEquals(sorted.size(), list.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, list.rank(sorted.get(i).getKey()));
+        }
+        List<RankedSkipList.Entry> top = list.top(100);
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals((long) sorted.get(i).getKey(), top.get(i).getId());
+            assertEquals(i + 1, top.get(i).getRank());
+        }
+    }
+
+    @Test
+    void missingIdsHaveNoRank() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(1, 10);
+        list.remove(1);
+        assertEquals(0, list.rank(1));
+        assertEquals(0, list.rank(2));
+        assertEquals(0, list.top(10).size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.greencode.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TDigestTest {
+
+    @Test
+    void quantilesStayCloseToExactRanks() {
+        TDigest digest = new TDigest();
+        Random random = new Random(11);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Skewed like project budgets: many small values, a long tail of large ones
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 10);
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, digest.count());
+        assertEquals(values[0], digest.min());
+        assertEquals(values[values.length - 1], digest.max());
+        for (double q : new double[] {0.01, 0.1, 0.5, 0.9, 0.99, 0.999}) {
+            assertTrue(rankError(values, digest.quantile(q), q) < 0.005, "rank error at q=" + q);
+        }
+    }
+
+    @Test
+    void mergedDigestsMatchOneDigestOfTheWholeStream() {
+        Random random = new Random(5);
+        TDigest whole = new TDigest();
+        TDigest[] parts = {new TDigest(), new TDigest(), new TDigest()};
+        double[] values = new double[30_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 1_000;
+            whole.add(values[i]);
+            parts[i % parts.length].add(values[i]);
+        }
+        Arrays.sort(values);
+
+        TDigest merged = new TDigest();
+        for (TDigest part : parts) {
+            merged.merge(part);
+        }
+
+        assertEquals(whole.count(), merged.count());
+        for (double q : new double[] {0.05, 0.5, 0.9, 0.95}) {
+            assertTrue(rankError(values, merged.quantile(q), q) < 0.01, "rank error at q=" + q);
+        }
+    }
+
+    @Test
+    void bytesRoundTripPreservesTheSummary() {
+        TDigest digest = new TDigest();
+        for (int i = 1; i <= 10_000; i++) {
+            digest.add(i);
+        }
+
+        TDigest copy = TDigest.fromBytes(digest.toBytes());
+
+        assertEquals(digest.count(), copy.count());
+        assertEquals(digest.min(), copy.min());
+        assertEquals(digest.max(), copy.max());
+        assertEquals(digest.quantile(0.5), copy.quantile(0.5), 1e-9);
+        assertEquals(digest.quantile(0.9), copy.quantile(0.9), 1e-9);
+    }
+
+    @Test
+    void smallAndEmptyDigests() {
+        TDigest digest = new TDigest();
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+        digest.add(42);
+        assertEquals(42, digest.quantile(0.1));
+        assertEquals(42, digest.quantile(0.9));
+
+        assertThrows(IllegalArgumentException.class, () -> digest.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> digest.add(Double.NaN));
+    }
+
+    // Distance between the requested quantile and the estimate's true rank in the sorted data
+    private static double rankError(double[] sorted, double estimate, double q) {
+        int index = Arrays.binarySearch(sorted, estimate);
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.abs((double) rank / sorted.length - q);
+    }
+}
@@ -0,0 +1,118 @@
+package com.greencode.repository.sharding;
+
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.UserDto;
+import com.greencode.entity.User;
+import com.greencode.exception.DuplicateUserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedUserRepositoryTest {
+
+    private static final int SHARDS = 3;
+
+    private ExecutorService executor;
+    private ShardedUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(h2(run + "-shard-" + i));
+        }
+        executor = Executors.newFixedThreadPool(SHARDS);
+        repository = new ShardedUserRepository(shards, h2(run + "-index"),
+            new TimeOrderedIdGenerator(1), executor, new SimpleMeterRegistry());
+        repository.initializeSchema();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void usersAreFoundByIdUsernameAndEmail() {
+        UserDto created = repository.insert(new User("alice", "alice@example.com", "hash"));
+
+        assertEquals("alice", repository.findDtoById(created.getId()).orElseThrow().getUsername());
+        assertEquals(created.getId(), repository.findDtoByUsername("alice").orElseThrow().getId());
+        assertEquals(created.getId(), repository.findDtoByEmail("alice@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void usernameAndEmailAreUniqueAcrossShards() {
+        repository.insert(new User("bob", "bob@example.com", "hash"));
+
+        DuplicateUserException username = assertThrows(DuplicateUserException.class,
+            () -> repository.insert(new User("bob", "other@example.com", "hash")));
+        assertEquals("username", username.getField());
+
+        DuplicateUserException email = assertThrows(DuplicateUserException.class,
+            () -> repository.insert(new User("other", "bob@example.com", "hash")));
+        assertEquals("email", email.getField());
+    }
+
+    @Test
+    void usersSpreadOverShards() {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            used.add(repository.shardFor(repository.insert(new User("u" + i, "u" + i + "@example.com", "hash")).getId()));
+        }
+        assertEquals(SHARDS, used.size());
+    }
+
+    @Test
+    void pagesMergeShardsInKeysetOrder() {
+        List<Long> inserted = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            inserted.add(repository.insert(new User("p" + i, "p" + i + "@example.com", "hash")).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        List<UserDto> page;
+        do {
+            page = repository.findPage(cursor, 10, true);
+            page.forEach(user -> seen.add(user.getId()));
+            if (!page.isEmpty()) {
+                UserDto last = page.get(page.size() - 1);
+                cursor = new KeysetCursor(last.getCreatedAt(), last.getId());
+            }
+        } while (page.size() == 10);
+
+        assertEquals(inserted, seen);
+    }
+
+    @Test
+    void softDeletedUsersDisappearFromReads() {
+        UserDto created = repository.insert(new User("carol", "carol@example.com", "hash"));
+
+        assertTrue(repository.softDelete(created.getId()));
+        assertFalse(repository.findDtoByUsername("carol").isPresent());
+        assertTrue(repository.findPage(null, 10, true).isEmpty());
+        assertEquals(1, repository.findPage(null, 10, false).size());
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
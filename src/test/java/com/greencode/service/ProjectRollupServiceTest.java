@@ -0,0 +1,106 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectRollupDto;
+import com.greencode.entity.Project;
+import com.greencode.repository.ProjectRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProjectRollupServiceTest {
+
+    private static final Project.ProjectCategory CATEGORY = Project.ProjectCategory.RESEARCH;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRollupService rollupService;
+
+    @Autowired
+    private ProjectRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void writesMoveTotalsBetweenRowsAndReconcileFindsNothingToRepair() {
+        ProjectRollupDto planned = rollup(Project.ProjectStatus.PLANNED);
+        ProjectRollupDto inProgress = rollup(Project.ProjectStatus.IN_PROGRESS);
+
+        ProjectDto created = projectService.createProject(project("100.00", "10.00"));
+        assertTotals(planned, 1, "100.00", "10.00", rollup(Project.ProjectStatus.PLANNED));
+
+        projectService.updateProject(created.getId(), project("250.50", "40.25"));
+        assertTotals(planned, 1, "250.50", "40.25", rollup(Project.ProjectStatus.PLANNED));
+
+        Project started = project("250.50", "60.00");
+        started.setStatus(Project.ProjectStatus.IN_PROGRESS);
+        projectService.updateProject(created.getId(), started);
+        assertTotals(planned, 0, "0", "0", rollup(Project.ProjectStatus.PLANNED));
+        assertTotals(inProgress, 1, "250.50", "60.00", rollup(Project.ProjectStatus.IN_PROGRESS));
+
+        projectService.deleteProject(created.getId());
+        assertTotals(inProgress, 0, "0", "0", rollup(Project.ProjectStatus.IN_PROGRESS));
+
+        assertEquals(0, rollupService.reconcile());
+    }
+
+    @Test
+    void projectsWithoutBudgetsOnlyMoveTheCount() {
+        ProjectRollupDto planned = rollup(Project.ProjectStatus.PLANNED);
+
+        ProjectDto created = projectService.createProject(new Project("Unbudgeted survey", CATEGORY));
+        assertTotals(planned, 1, "0", "0", rollup(Project.ProjectStatus.PLANNED));
+
+        projectService.deleteProject(created.getId());
+        assertTotals(planned, 0, "0", "0", rollup(Project.ProjectStatus.PLANNED));
+        assertEquals(0, rollupService.reconcile());
+    }
+
+    @Test
+    void reconcileRepairsADriftedRow() {
+        ProjectRollupDto before = rollup(Project.ProjectStatus.ON_HOLD);
+        // A change made behind the application's back, as with a manual SQL fix
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> rollupRepository.applyDelta(
+            CATEGORY, Project.ProjectStatus.ON_HOLD, 3, new BigDecimal("99.00"), BigDecimal.ZERO,
+            LocalDateTime.now()));
+        assertTotals(before, 3, "99.00", "0", rollup(Project.ProjectStatus.ON_HOLD));
+
+        assertEquals(1, rollupService.reconcile());
+        assertTotals(before, 0, "0", "0", rollup(Project.ProjectStatus.ON_HOLD));
+        assertEquals(0, rollupService.reconcile());
+    }
+
+    private ProjectRollupDto rollup(Project.ProjectStatus status) {
+        List<ProjectRollupDto> rows = rollupService.getRollups(CATEGORY, status);
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+
+    private static Project project(String budget, String actualCost) {
+        Project project = new Project("Soil carbon study", CATEGORY);
+        project.setBudget(new BigDecimal(budget));
+        project.setActualCost(new BigDecimal(actualCost));
+        return project;
+    }
+
+    // Compares against the row as it was before the test, since other tests share the database
+    private static void assertTotals(ProjectRollupDto baseline, long count, String budget, String actualCost,
+                                     ProjectRollupDto current) {
+        assertEquals(baseline.getProjectCount() + count, current.getProjectCount());
+        assertEquals(0, baseline.getTotalBudget().add(new BigDecimal(budget)).compareTo(current.getTotalBudget()));
+        assertEquals(0,
+            baseline.getTotalActualCost().add(new BigDecimal(actualCost)).compareTo(current.getTotalActualCost()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.greencode.service;
+
+import com.greencode.dto.ProjectDto;
+import com.greencode.entity.Project;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProjectSearchIndexTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @TempDir
+    private Path indexDir;
+
+    @Test
+    void matchesPrefixesAndMisspellingsWithExactHitsFirst() throws IOException {
+        ProjectDto exact = projectService.createProject(project("Mangrovia replanting"));
+        ProjectDto longer = projectService.createProject(project("Mangroviashore survey"));
+
+        ProjectSearchIndex index = open();
+        try {
+            assertEquals(Set.of(exact.getId(), longer.getId()), Set.copyOf(ids(index, "mangrov", null, null)));
+            assertEquals(List.of(exact.getId()), ids(index, "mangrovea", null, null));
+            assertEquals(List.of(exact.getId(), longer.getId()), ids(index, "mangrovia", null, null));
+            assertThrows(IllegalArgumentException.class, () -> index.search("  ", null, null, 10));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void filtersByCategoryAndStatus() throws IOException {
+        ProjectDto research = projectService.createProject(project("Peatbogia monitoring"));
+        Project started = new Project("Peatbogia rewetting", Project.ProjectCategory.WATER_CONSERVATION);
+        started.setStatus(Project.ProjectStatus.IN_PROGRESS);
+        ProjectDto water = projectService.createProject(started);
+
+        ProjectSearchIndex index = open();
+        try {
+            assertEquals(2, ids(index, "peatbogia", null, null).size());
+            assertEquals(List.of(research.getId()),
+                ids(index, "peatbogia", Project.ProjectCategory.RESEARCH, null));
+            assertEquals(List.of(water.getId()), ids(index, "peatbogia", null, Project.ProjectStatus.IN_PROGRESS));
+            assertTrue(ids(index, "peatbogia", Project.ProjectCategory.RESEARCH, Project.ProjectStatus.IN_PROGRESS)
+                .isEmpty());
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void catchUpDropsProjectsDeletedWhileTheIndexWasClosed() throws IOException {
+        ProjectDto kept = projectService.createProject(project("Duneholm fencing"));
+        ProjectDto deleted = projectService.createProject(project("Duneholm grazing"));
+
+        ProjectSearchIndex index = open();
+        assertEquals(2, ids(index, "duneholm", null, null).size());
+        index.shutdown();
+
+        // Writes this index does not hear about, as when they happen on another node
+        projectService.deleteProject(deleted.getId());
+        projectService.updateProject(kept.getId(), project("Duneholm fencing and seeding"));
+
+        index = open();
+        try {
+            assertEquals(List.of(kept.getId()), ids(index, "duneholm", null, null));
+            assertEquals(List.of(kept.getId()), ids(index, "seeding duneholm", null, null));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void periodicCatchUpAppliesWritesThisIndexWasNotToldAbout() throws IOException {
+        ProjectDto deleted = projectService.createProject(project("Fjordlyn dredging"));
+
+        ProjectSearchIndex index = open();
+        try {
+            // A standalone index hears no events, like one on another node
+            ProjectDto created = projectService.createProject(project("Fjordlyn eelgrass"));
+            projectService.deleteProject(deleted.getId());
+            assertEquals(List.of(deleted.getId()), ids(index, "fjordlyn", null, null));
+
+            index.catchUp();
+            index.refresh();
+            assertEquals(List.of(created.getId()), ids(index, "fjordlyn", null, null));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    // A standalone index over the temporary directory, opened and loaded the way startup does
+    private ProjectSearchIndex open() {
+        ProjectSearchIndex index = new ProjectSearchIndex();
+        beanFactory.autowireBean(index);
+        ReflectionTestUtils.setField(index, "indexDir", indexDir.toString());
+        index.init();
+        index.load();
+        return index;
+    }
+
+    private static List<Long> ids(ProjectSearchIndex index, String text, Project.ProjectCategory category,
+                                  Project.ProjectStatus status) {
+        return index.search(text, category, status, 10).stream().map(ProjectSearchIndex.Hit::getId).toList();
+    }
+
+    // Names use made-up words, since other tests share the database
+    private static Project project(String name) {
+        return new Project(name, Project.ProjectCategory.RESEARCH);
+    }
+}
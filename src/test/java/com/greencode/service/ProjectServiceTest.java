@@ -0,0 +1,178 @@
+package com.greencode.service;
+
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.ProjectDto;
+import com.greencode.dto.ProjectFilter;
+import com.greencode.entity.Project;
+import com.greencode.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProjectServiceTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void filterCombinationsSelectOnlyMatchingProjects() {
+        User manager = userService.createUser(new User("project-filter-manager", "pfm@example.org", "secret-1"));
+        Project withManager = project(Project.ProjectCategory.FORESTRY, Project.ProjectStatus.IN_PROGRESS,
+            false, 8, LocalDate.of(1901, 3, 1));
+        withManager.setManager(manager);
+
+        Long plannedForest = create(project(Project.ProjectCategory.FORESTRY, Project.ProjectStatus.PLANNED,
+            true, 3, LocalDate.of(1901, 1, 10)));
+        Long privateForest = create(withManager);
+        Long activeWater = create(project(Project.ProjectCategory.WATER_CONSERVATION,
+            Project.ProjectStatus.IN_PROGRESS, true, 8, LocalDate.of(1901, 6, 30)));
+        Long completedWater = create(project(Project.ProjectCategory.WATER_CONSERVATION,
+            Project.ProjectStatus.COMPLETED, true, 10, LocalDate.of(1901, 12, 31)));
+
+        assertEquals(List.of(plannedForest, privateForest, activeWater, completedWater), all(year(1901)));
+
+        ProjectFilter filter = year(1901);
+        filter.setCategory(Project.ProjectCategory.FORESTRY);
+        assertEquals(List.of(plannedForest, privateForest), all(filter));
+        filter.setStatus(Project.ProjectStatus.IN_PROGRESS);
+        assertEquals(List.of(privateForest), all(filter));
+
+        filter = year(1901);
+        filter.setStatus(Project.ProjectStatus.IN_PROGRESS);
+        assertEquals(List.of(privateForest, activeWater), all(filter));
+        filter.setIsPublic(true);
+        assertEquals(List.of(activeWater), all(filter));
+
+        filter = year(1901);
+        filter.setManagerId(manager.getId());
+        assertEquals(List.of(privateForest), all(filter));
+
+        // Impact and start date bounds are inclusive
+        filter = year(1901);
+        filter.setMinImpact(8);
+        assertEquals(List.of(privateForest, activeWater, completedWater), all(filter));
+        filter.setMaxImpact(8);
+        assertEquals(List.of(privateForest, activeWater), all(filter));
+        filter.setStartFrom(LocalDate.of(1901, 6, 30));
+        assertEquals(List.of(activeWater), all(filter));
+
+        filter = year(1901);
+        filter.setStartTo(LocalDate.of(1901, 3, 1));
+        filter.setIsPublic(false);
+        assertEquals(List.of(privateForest), all(filter));
+    }
+
+    @Test
+    void invertedRangesAreRejected() {
+        ProjectFilter dates = year(1901);
+        dates.setStartTo(LocalDate.of(1900, 12, 31));
+        assertThrows(IllegalArgumentException.class, () -> projectService.getProjects(dates, null, 10));
+
+        ProjectFilter impact = year(1901);
+        impact.setMinImpact(9);
+        impact.setMaxImpact(2);
+        assertThrows(IllegalArgumentException.class, () -> projectService.getProjects(impact, null, 10));
+    }
+
+    @Test
+    void keysetPagesWalkFilteredResultsOnceBreakingTiesById() {
+        LocalDateTime tied = LocalDateTime.of(2003, 4, 5, 6, 7, 8);
+        List<Long> forests = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            forests.add(create(project(Project.ProjectCategory.FORESTRY, Project.ProjectStatus.PLANNED,
+                true, 5, LocalDate.of(1902, 1, 1 + i))));
+        }
+        Long water = create(project(Project.ProjectCategory.WATER_CONSERVATION, Project.ProjectStatus.PLANNED,
+            true, 5, LocalDate.of(1902, 2, 1)));
+
+        // The last project created is moved first; the other four share one createdAt
+        createdAt(forests.get(4), tied.minusDays(1));
+        expected.add(forests.get(4));
+        for (Long id : forests.subList(0, 4)) {
+            createdAt(id, tied);
+            expected.add(id);
+        }
+        createdAt(water, tied);
+
+        ProjectFilter filter = year(1902);
+        filter.setCategory(Project.ProjectCategory.FORESTRY);
+        assertEquals(expected, all(filter));
+
+        // Every page size walks the same order, and a cursor resumes strictly after its row
+        for (int size = 1; size <= 6; size++) {
+            assertEquals(expected, all(filter, size));
+        }
+        String afterFirstTie = new KeysetCursor(tied, forests.get(0)).encode();
+        CursorPage<ProjectDto> page = projectService.getProjects(filter, afterFirstTie, 10);
+        assertEquals(forests.subList(1, 4), page.getContent().stream().map(ProjectDto::getId).toList());
+        assertFalse(page.isHasNext());
+
+        // Without the category the same walk interleaves the other project by (createdAt, id)
+        List<Long> withWater = new ArrayList<>(expected);
+        withWater.add(water);
+        assertEquals(withWater, all(year(1902)));
+    }
+
+    private List<Long> all(ProjectFilter filter) {
+        return all(filter, 2);
+    }
+
+    private List<Long> all(ProjectFilter filter, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProjectDto> page = projectService.getProjects(filter, cursor, size);
+            page.getContent().forEach(project -> ids.add(project.getId()));
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    // Other tests share the database, so each test keeps its projects to a start year of its own
+    private static ProjectFilter year(int year) {
+        ProjectFilter filter = new ProjectFilter();
+        filter.setStartFrom(LocalDate.of(year, 1, 1));
+        filter.setStartTo(LocalDate.of(year, 12, 31));
+        return filter;
+    }
+
+    private Long create(Project project) {
+        return projectService.createProject(project).getId();
+    }
+
+    // created_at is set by auditing on insert, so ties have to be arranged directly in the table
+    private void createdAt(Long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("UPDATE projects SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), id);
+    }
+
+    private static Project project(Project.ProjectCategory category, Project.ProjectStatus status,
+                                   boolean isPublic, int impact, LocalDate start) {
+        Project project = new Project("Listing " + category + " " + start, category);
+        project.setStatus(status);
+        project.setIsPublic(isPublic);
+        project.setImpactScore(impact);
+        project.setStartDate(start);
+        return project;
+    }
+}
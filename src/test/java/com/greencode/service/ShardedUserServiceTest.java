@@ -0,0 +1,173 @@
+package com.greencode.service;
+
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.UserDto;
+import com.greencode.dto.UserPatchRequest;
+import com.greencode.entity.Project;
+import com.greencode.entity.User;
+import com.greencode.exception.DuplicateUserException;
+import com.greencode.repository.UserRepository;
+import com.greencode.repository.sharding.ShardedUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "greencode.sharding.enabled=true",
+    "greencode.sharding.index.url=jdbc:h2:mem:sharded-service-index",
+    // An indexed list here replaces the one in application.yml, so every entry is spelled out
+    "greencode.sharding.shards[0].url=jdbc:h2:mem:sharded-service-0",
+    "greencode.sharding.shards[0].username=sa",
+    "greencode.sharding.shards[1].url=jdbc:h2:mem:sharded-service-1",
+    "greencode.sharding.shards[1].username=sa",
+    "greencode.sharding.shards[2].url=jdbc:h2:mem:sharded-service-2",
+    "greencode.sharding.shards[2].username=sa"
+})
+class ShardedUserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardedUserRepository shardedUsers;
+
+    @Autowired
+    private UserExportService exportService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Test
+    void usersAreStoredAndReadThroughTheShards() {
+        long tableRows = userRepository.count();
+        User created = userService.createUser(new User("sharded-alice", "alice@sharded.example", "secret-1"));
+
+        assertEquals("sharded-alice", userService.getUserById(created.getId()).orElseThrow().getUsername());
+        assertEquals(created.getId(), userService.getUserByUsername("sharded-alice").orElseThrow().getId());
+        assertEquals(created.getId(),
+            userService.getUserByEmail("alice@sharded.example").orElseThrow().getId());
+        assertTrue(userService.existsByUsername("sharded-alice"));
+        assertTrue(userService.existsByEmail("alice@sharded.example"));
+        assertFalse(userService.existsByUsername("sharded-nobody"));
+        // Nothing reached the JPA users table
+        assertEquals(tableRows, userRepository.count());
+    }
+
+    @Test
+    void duplicatesAreRejectedAcrossShards() {
+        userService.createUser(new User("sharded-bob", "bob@sharded.example", "secret-1"));
+
+        assertThrows(DuplicateUserException.class,
+            () -> userService.createUser(new User("sharded-bob", "other@sharded.example", "secret-1")));
+        assertThrows(DuplicateUserException.class,
+            () -> userService.createUser(new User("sharded-bobby", "bob@sharded.example", "secret-1")));
+    }
+
+    @Test
+    void updatesPatchesAndDeletesGoThroughTheShards() {
+        User created = userService.createUser(new User("sharded-carol", "carol@sharded.example", "secret-1"));
+
+        User details = new User("sharded-caroline", "caroline@sharded.example", null);
+        details.setFirstName("Caroline");
+        userService.updateUser(created.getId(), details);
+        assertEquals("sharded-caroline", userService.getUserById(created.getId()).orElseThrow().getUsername());
+        assertTrue(userService.getUserByUsername("sharded-carol").isEmpty());
+
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setLastName("Jones");
+        userService.patchUser(created.getId(), patch);
+        Optional<UserDto> patched = userService.getUserByEmail("caroline@sharded.example");
+        assertEquals("Caroline", patched.orElseThrow().getFirstName());
+        assertEquals("Jones", patched.orElseThrow().getLastName());
+
+        userService.deleteUser(created.getId());
+        assertTrue(userService.getUserById(created.getId()).isEmpty());
+        // The name stays reserved after a soft delete, as it does in the users table
+        assertTrue(userService.existsByUsername("sharded-caroline"));
+    }
+
+    @Test
+    void listingsMergeEveryShard() {
+        for (int i = 0; i < 6; i++) {
+            userService.createUser(new User("sharded-list" + i, "list" + i + "@sharded.example", "secret-1"));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserDto> page = userService.getActiveUsers(cursor, 2);
+            page.getContent().stream()
+                .map(UserDto::getUsername)
+                .filter(name -> name.startsWith("sharded-list"))
+                .forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("sharded-list0", "sharded-list1", "sharded-list2", "sharded-list3",
+            "sharded-list4", "sharded-list5"), seen);
+    }
+
+    @Test
+    void exportAndStartupLoadsReadTheShards() throws IOException {
+        userService.createUser(new User("sharded-dave", "dave@sharded.example", "secret-1"));
+        User gone = userService.createUser(new User("sharded-erin", "erin@sharded.example", "secret-1"));
+        userService.deleteUser(gone.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(UserExportService.ExportFormat.NDJSON, out);
+        String exported = out.toString(StandardCharsets.UTF_8);
+        assertTrue(exported.contains("\"sharded-dave\""));
+        assertFalse(exported.contains("\"sharded-erin\""));
+
+        // What the typeahead loads: active users only, across page boundaries
+        List<String> active;
+        try (var users = shardedUsers.streamActive(2)) {
+            active = users.map(UserDto::getUsername).toList();
+        }
+        assertTrue(active.contains("sharded-dave"));
+        assertFalse(active.contains("sharded-erin"));
+
+        // What the availability filters load: every name ever taken
+        List<String> taken;
+        try (var rows = shardedUsers.streamUsernamesAndEmails()) {
+            taken = rows.map(row -> (String) row[0]).toList();
+        }
+        assertTrue(taken.containsAll(List.of("sharded-dave", "sharded-erin")));
+    }
+
+    @Test
+    void unsetEnabledFlagReadsBackAsNull() {
+        User user = new User("sharded-frank", "frank@sharded.example", "secret-1");
+        user.setIsEnabled(null);
+        User created = userService.createUser(user);
+
+        assertNull(userService.getUserById(created.getId()).orElseThrow().getIsEnabled());
+    }
+
+    @Test
+    void projectManagersCannotBeAssigned() {
+        User manager = userService.createUser(new User("sharded-grace", "grace@sharded.example", "secret-1"));
+        Project project = new Project("Sharded manager survey", Project.ProjectCategory.RESEARCH);
+        User reference = new User();
+        reference.setId(manager.getId());
+        project.setManager(reference);
+
+        assertThrows(IllegalArgumentException.class, () -> projectService.createProject(project));
+    }
+}
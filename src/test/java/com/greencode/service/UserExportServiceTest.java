@@ -0,0 +1,106 @@
+package com.greencode.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.controller.UserController;
+import com.greencode.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserExportServiceTest {
+
+    @Autowired
+    private UserExportService exportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonWritesOneActiveUserPerLineWithoutPasswords() throws IOException {
+        User kept = create("export-ndjson-kept", "Ann \"Fern\"", "Lee, Jr.");
+        User deleted = create("export-ndjson-gone", "Gone", "Away");
+        userService.deleteUser(deleted.getId());
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export(UserExportService.ExportFormat.NDJSON).split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+
+        JsonNode row = rows.stream()
+            .filter(node -> node.get("id").asLong() == kept.getId())
+            .findFirst().orElseThrow();
+        assertEquals("export-ndjson-kept", row.get("username").asText());
+        assertEquals("Ann \"Fern\"", row.get("firstName").asText());
+        assertEquals("Lee, Jr.", row.get("lastName").asText());
+        assertFalse(row.has("password"));
+        assertTrue(rows.stream().noneMatch(node -> node.get("id").asLong() == deleted.getId()));
+    }
+
+    @Test
+    void csvQuotesFieldsWithCommasQuotesAndNewlines() throws IOException {
+        User kept = create("export-csv-kept", "Ann \"Fern\"", "Lee, Jr.\nof Marshfield");
+        User plain = create("export-csv-plain", "Moss", "Bank");
+        User deleted = create("export-csv-gone", "Gone", "Away");
+        userService.deleteUser(deleted.getId());
+
+        String csv = export(UserExportService.ExportFormat.CSV);
+
+        assertTrue(csv.startsWith(
+            "id,username,email,first_name,last_name,role,is_enabled,created_at,updated_at\n"));
+        assertTrue(csv.contains("\n" + kept.getId() + ",export-csv-kept,export-csv-kept@example.org,"
+            + "\"Ann \"\"Fern\"\"\",\"Lee, Jr.\nof Marshfield\","));
+        assertTrue(csv.contains("\n" + plain.getId()
+            + ",export-csv-plain,export-csv-plain@example.org,Moss,Bank,"));
+        assertFalse(csv.contains("export-csv-gone"));
+    }
+
+    @Test
+    void endpointPicksTheFormatAndRejectsUnknownOnes() throws IOException {
+        create("export-endpoint", "Reed", "Warbler");
+
+        ResponseEntity<StreamingResponseBody> csv = userController.exportUsers("CSV");
+        assertEquals(new MediaType("text", "csv"), csv.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        csv.getBody().writeTo(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(",export-endpoint,"));
+
+        assertEquals(new MediaType("application", "x-ndjson"),
+            userController.exportUsers("ndjson").getHeaders().getContentType());
+        assertEquals(HttpStatus.BAD_REQUEST, userController.exportUsers("xml").getStatusCode());
+    }
+
+    private User create(String username, String firstName, String lastName) {
+        User user = new User(username, username + "@example.org", "secret-1");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return userService.createUser(user);
+    }
+
+    private String export(UserExportService.ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package com.greencode.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greencode.dto.CursorPage;
+import com.greencode.dto.KeysetCursor;
+import com.greencode.dto.UserDto;
+import com.greencode.dto.UserPatchRequest;
+import com.greencode.entity.User;
+import com.greencode.exception.DuplicateUserException;
+import com.greencode.exception.GlobalExceptionHandler;
+import com.greencode.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cursorsWalkEveryUserOnceBreakingCreatedAtTiesById() {
+        LocalDateTime tied = LocalDateTime.of(2001, 3, 4, 5, 6, 7);
+        Long earlier = createdAt(create("cursor-dawn"), tied.minusDays(1));
+        Long first = createdAt(create("cursor-tie-a"), tied);
+        Long second = createdAt(create("cursor-tie-b"), tied);
+        Long third = createdAt(create("cursor-tie-c"), tied);
+
+        // Pages of two split the tied rows, so the second cursor lands between equal createdAt values
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserDto> page = userService.getAllUsers(cursor, 2);
+            assertTrue(page.getContent().size() <= 2);
+            page.getContent().forEach(user -> walked.add(user.getId()));
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(walked.size(), new HashSet<>(walked).size());
+        Set<Long> ours = Set.of(earlier, first, second, third);
+        assertEquals(List.of(earlier, first, second, third), walked.stream().filter(ours::contains).toList());
+    }
+
+    @Test
+    void activeListingResumesFromACursor() {
+        LocalDateTime tied = LocalDateTime.of(2002, 3, 4, 5, 6, 7);
+        Long first = createdAt(create("cursor-active-a"), tied);
+        Long second = createdAt(create("cursor-active-b"), tied);
+
+        String before = new KeysetCursor(tied, first - 1).encode();
+        CursorPage<UserDto> page = userService.getActiveUsers(before, 1);
+        assertEquals(List.of(first), ids(page));
+
+        page = userService.getActiveUsers(page.getNextCursor(), 1);
+        assertEquals(List.of(second), ids(page));
+    }
+
+    @Test
+    void invalidOrTamperedCursorsAreBadRequests() {
+        String withoutCreatedAt = token("|42");
+        String badTimestamp = token("yesterday|42");
+        String badId = token(LocalDateTime.of(2001, 1, 1, 0, 0) + "|forty-two");
+        List<String> cursors = List.of("not a cursor!", token("no separator"),
+            withoutCreatedAt, badTimestamp, badId);
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> userService.getAllUsers(cursor, 10), cursor);
+            assertEquals(HttpStatus.BAD_REQUEST,
+                new GlobalExceptionHandler().handleIllegalArgumentException(e).getStatusCode());
+            assertThrows(IllegalArgumentException.class, () -> userService.getActiveUsers(cursor, 10), cursor);
+        }
+        // An empty cursor is simply the first page
+        assertEquals(ids(userService.getAllUsers(null, 10)), ids(userService.getAllUsers("", 10)));
+    }
+
+    @Test
+    void duplicateUsernameIsAConflictOnTheUsernameField() {
+        create("dupe-name");
+
+        DuplicateUserException e = assertThrows(DuplicateUserException.class,
+            () -> userService.createUser(new User("dupe-name", "dupe-name-2@example.org", "secret-1")));
+        assertEquals("username", e.getField());
+        assertEquals(HttpStatus.CONFLICT,
+            new GlobalExceptionHandler().handleDuplicateUserException(e).getStatusCode());
+    }
+
+    @Test
+    void duplicateEmailIsAConflictOnTheEmailField() {
+        create("dupe-mail");
+        Long other = create("dupe-mail-other");
+
+        DuplicateUserException e = assertThrows(DuplicateUserException.class,
+            () -> userService.createUser(new User("dupe-mail-2", "dupe-mail@example.org", "secret-1")));
+        assertEquals("email", e.getField());
+
+        // Renaming onto a taken email goes through the same constraint mapping
+        User details = new User("dupe-mail-other", "dupe-mail@example.org", null);
+        e = assertThrows(DuplicateUserException.class, () -> userService.updateUser(other, details));
+        assertEquals("email", e.getField());
+        assertEquals("dupe-mail-other@example.org", userService.getUserById(other).orElseThrow().getEmail());
+    }
+
+    @Test
+    void patchLeavesOmittedFieldsAndClearsExplicitNulls() throws JsonProcessingException {
+        User user = new User("patch-ivy", "patch-ivy@example.org", "secret-1");
+        user.setFirstName("Ivy");
+        user.setLastName("Holt");
+        Long id = userService.createUser(user).getId();
+
+        userService.patchUser(id, patch("{\"firstName\": \"Iris\"}"));
+        UserDto patched = userService.getUserById(id).orElseThrow();
+        assertEquals("Iris", patched.getFirstName());
+        assertEquals("Holt", patched.getLastName());
+
+        userService.patchUser(id, patch("{\"lastName\": null}"));
+        patched = userService.getUserById(id).orElseThrow();
+        assertEquals("Iris", patched.getFirstName());
+        assertNull(patched.getLastName());
+
+        // Required fields and enums cannot be cleared; a null role or flag is ignored
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.patchUser(id, patch("{\"username\": null}")));
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.patchUser(id, patch("{\"email\": null}")));
+        userService.patchUser(id, patch("{\"role\": null, \"isEnabled\": null}"));
+        patched = userService.getUserById(id).orElseThrow();
+        assertEquals("patch-ivy", patched.getUsername());
+        assertEquals(User.UserRole.USER, patched.getRole());
+        assertEquals(Boolean.TRUE, patched.getIsEnabled());
+    }
+
+    @Test
+    void patchRehashesOnlyANewPassword() throws JsonProcessingException {
+        Long id = create("patch-rowan");
+        String original = storedHash(id);
+
+        userService.patchUser(id, patch("{\"firstName\": \"Rowan\"}"));
+        userService.patchUser(id, patch("{\"password\": \"\"}"));
+        assertEquals(original, storedHash(id));
+
+        userService.patchUser(id, patch("{\"password\": \"secret-2\"}"));
+        String rehashed = storedHash(id);
+        assertNotEquals(original, rehashed);
+        assertNotEquals("secret-2", rehashed);
+        assertTrue(passwordEncoder.matches("secret-2", rehashed));
+    }
+
+    private Long create(String username) {
+        return userService.createUser(new User(username, username + "@example.org", "secret-1")).getId();
+    }
+
+    // created_at is set by auditing on insert, so ties have to be arranged directly in the table
+    private Long createdAt(Long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), id);
+        return id;
+    }
+
+    // Deserialized like the PATCH body, so only properties present in the JSON are marked
+    private UserPatchRequest patch(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, UserPatchRequest.class);
+    }
+
+    private String storedHash(Long id) {
+        return userRepository.findById(id).orElseThrow().getPassword();
+    }
+
+    private static List<Long> ids(CursorPage<UserDto> page) {
+        return page.getContent().stream().map(UserDto::getId).toList();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}